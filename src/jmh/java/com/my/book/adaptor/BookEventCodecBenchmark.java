@@ -0,0 +1,66 @@
+package com.my.book.adaptor;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.my.book.config.KafkaProperties;
+import com.my.book.domain.event.BookChanged;
+import com.my.book.domain.event.StockChanged;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Benchmark of the Kafka event (de)serialization done by {@link BookEventCodec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookEventCodecBenchmark {
+
+    @Param({ "JSON", "CBOR" })
+    private KafkaProperties.EventFormat eventFormat;
+
+    private BookEventCodec bookEventCodec;
+
+    private byte[] stockChangedMessage;
+
+    private BookChanged bookChanged;
+
+    @Setup
+    public void setUp() throws Exception {
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setEventFormat(eventFormat);
+        bookEventCodec = new BookEventCodec(new Jackson2ObjectMapperBuilder(), kafkaProperties);
+
+        bookChanged = new BookChanged();
+        bookChanged.setBookId(1051L);
+        bookChanged.setTitle("자바 ORM 표준 JPA 프로그래밍");
+        bookChanged.setAuthor("김영한");
+        bookChanged.setDescription("JPA 기초부터 실무 활용까지");
+        bookChanged.setPublicationDate("2015-07-28");
+        bookChanged.setClassification("ComputerTechnology");
+        bookChanged.setRented(false);
+        bookChanged.setEventType("NEW_BOOK");
+        bookChanged.setRentCnt(0L);
+
+        if (eventFormat == KafkaProperties.EventFormat.JSON) {
+            stockChangedMessage = "{\"bookId\":1051,\"bookStatus\":\"UNAVAILABLE\"}".getBytes(StandardCharsets.UTF_8);
+        } else {
+            // CBOR 메시지는 같은 포맷의 ObjectMapper 로 만든다
+            StockChanged stockChanged = new StockChanged();
+            stockChanged.setBookId(1051L);
+            stockChanged.setBookStatus("UNAVAILABLE");
+            stockChangedMessage = new Jackson2ObjectMapperBuilder().factory(new CBORFactory()).build().writeValueAsBytes(stockChanged);
+        }
+    }
+
+    @Benchmark
+    public StockChanged decodeStockChanged() throws Exception {
+        return bookEventCodec.decodeStockChanged(stockChangedMessage);
+    }
+
+    @Benchmark
+    public byte[] encodeBookChanged() throws Exception {
+        return bookEventCodec.encodeBookChanged(bookChanged);
+    }
+}
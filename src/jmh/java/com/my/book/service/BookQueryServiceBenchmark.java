@@ -0,0 +1,55 @@
+package com.my.book.service;
+
+import com.my.book.domain.Book;
+import com.my.book.domain.enumeration.BookStatus;
+import com.my.book.domain.enumeration.Classification;
+import com.my.book.domain.enumeration.Location;
+import com.my.book.service.criteria.BookCriteria;
+import com.my.book.service.search.SearchNgramIndexer;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Benchmark of the {@link Specification} construction in {@link BookQueryService}.
+ * The JPA metamodel is not initialized here, so only the construction cost is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BookQueryServiceBenchmark {
+
+    private BookQueryService bookQueryService;
+
+    private BookCriteria emptyCriteria;
+
+    private BookCriteria fullCriteria;
+
+    @Setup
+    public void setUp() {
+        bookQueryService = new BookQueryService(null, null, null, null, null, null, null, new SearchNgramIndexer(null, null, null, null));
+        emptyCriteria = new BookCriteria();
+        fullCriteria = new BookCriteria();
+        fullCriteria.id().setGreaterThan(1000L);
+        fullCriteria.title().setContains("자바");
+        fullCriteria.author().setEquals("김영한");
+        fullCriteria.description().setSpecified(true);
+        fullCriteria.publisher().setContains("에이콘");
+        fullCriteria.isbn().setGreaterThanOrEqual(9788900000000L);
+        fullCriteria.publicationDate().setLessThan(LocalDate.of(2021, 1, 1));
+        fullCriteria.classification().setEquals(Classification.Science);
+        fullCriteria.bookStatus().setEquals(BookStatus.AVAILABLE);
+        fullCriteria.location().setEquals(Location.PANGYO);
+    }
+
+    @Benchmark
+    public Specification<Book> emptyCriteria() {
+        return bookQueryService.createSpecification(emptyCriteria);
+    }
+
+    @Benchmark
+    public Specification<Book> fullCriteria() {
+        return bookQueryService.createSpecification(fullCriteria);
+    }
+}
@@ -0,0 +1,62 @@
+package com.my.book.web.rest.mapper;
+
+import com.my.book.domain.Book;
+import com.my.book.domain.enumeration.BookStatus;
+import com.my.book.domain.enumeration.Classification;
+import com.my.book.domain.enumeration.Location;
+import com.my.book.web.rest.dto.BookDTO;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmark of {@link BookMapper} list conversions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BookMapperBenchmark {
+
+    @Param({ "20", "1000" })
+    private int size;
+
+    private BookMapper bookMapper;
+
+    private List<Book> books;
+
+    private List<BookDTO> bookDTOs;
+
+    @Setup
+    public void setUp() {
+        bookMapper = new BookMapperImpl();
+        books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            books.add(
+                new Book()
+                    .id((long) i)
+                    .title("title " + i)
+                    .author("author " + i)
+                    .description("description " + i)
+                    .publisher("publisher")
+                    .isbn(9788900000000L + i)
+                    .publicationDate(LocalDate.of(2021, 1, 1).plusDays(i))
+                    .classification(Classification.Science)
+                    .bookStatus(BookStatus.AVAILABLE)
+                    .location(Location.PANGYO)
+            );
+        }
+        bookDTOs = bookMapper.toDto(books);
+    }
+
+    @Benchmark
+    public List<BookDTO> toDto() {
+        return bookMapper.toDto(books);
+    }
+
+    @Benchmark
+    public List<Book> toEntity() {
+        return bookMapper.toEntity(bookDTOs);
+    }
+}
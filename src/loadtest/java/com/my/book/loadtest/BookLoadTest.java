@@ -0,0 +1,293 @@
+package com.my.book.loadtest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.book.BookApp;
+import com.my.book.adaptor.BookConsumer;
+import com.my.book.security.AuthoritiesConstants;
+import com.my.book.security.jwt.TokenProvider;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * End-to-end load test: drives the book REST API over HTTP and floods {@code topic_book} with StockChanged messages,
+ * then reports p50/p99 latency and throughput per endpoint and the consumer lag over time.
+ * <p>
+ * The application runs on H2 with an embedded Kafka broker, so the test needs no external service.
+ */
+@SpringBootTest(classes = BookApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// KafkaProperties 의 bootStrapServers 필드는 kafka.boot-strap-servers 로 바인딩된다
+@EmbeddedKafka(partitions = 4, topics = { BookConsumer.TOPIC, "topic_catalog" }, bootstrapServersProperty = "kafka.boot-strap-servers")
+class BookLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 16);
+    private static final int MESSAGES = Integer.getInteger("loadtest.messages", 50000);
+    private static final String REPORT = System.getProperty("loadtest.report", "target/loadtest-report.json");
+    private static final String CONSUMER_GROUP = "book";
+
+    private final Logger log = LoggerFactory.getLogger(BookLoadTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private String authorization;
+
+    @BeforeEach
+    void setUp() {
+        String token = tokenProvider.createToken(
+            new UsernamePasswordAuthenticationToken(
+                "loadtest",
+                "loadtest",
+                Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))
+            ),
+            false
+        );
+        authorization = "Bearer " + token;
+    }
+
+    @Test
+    void restAndConsumerThroughput() throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        List<LatencyRecorder> scenarios = new ArrayList<>();
+        ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+
+        scenarios.add(
+            run(
+                "POST /api/books",
+                i -> request("/api/books").POST(HttpRequest.BodyPublishers.ofString(bookJson(null, i))).build(),
+                body -> createdIds.add(readId(body))
+            )
+        );
+        Long[] ids = createdIds.toArray(new Long[0]);
+        assertThat(ids).isNotEmpty();
+
+        scenarios.add(run("GET /api/books", i -> request("/api/books?page=" + (i % 20) + "&size=20").GET().build(), null));
+        scenarios.add(run("GET /api/books/{id}", i -> request("/api/books/" + ids[i % ids.length]).GET().build(), null));
+        scenarios.add(run("GET /api/books/bookInfo/{id}", i -> request("/api/books/bookInfo/" + ids[i % ids.length]).GET().build(), null));
+        scenarios.add(
+            run(
+                "PUT /api/books/{id}",
+                i -> {
+                    Long id = ids[i % ids.length];
+                    return request("/api/books/" + id).PUT(HttpRequest.BodyPublishers.ofString(bookJson(id, i))).build();
+                },
+                null
+            )
+        );
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        scenarios.forEach(scenario -> endpoints.put(scenario.getName(), scenario.summary()));
+        report.put("endpoints", endpoints);
+        report.put("consumer", stockChangedFirehose(ids));
+
+        LatencyRecorder delete = run("DELETE /api/books/{id}", i -> request("/api/books/" + ids[i]).DELETE().build(), null, ids.length);
+        endpoints.put(delete.getName(), delete.summary());
+        scenarios.add(delete);
+
+        Path reportPath = Paths.get(REPORT);
+        if (reportPath.getParent() != null) {
+            Files.createDirectories(reportPath.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportPath.toFile(), report);
+        log.info("Load test report written to {}", reportPath.toAbsolutePath());
+
+        scenarios.forEach(scenario -> assertThat(scenario.getErrors()).as(scenario.getName()).isZero());
+    }
+
+    private LatencyRecorder run(String name, IntFunction<HttpRequest> requests, Consumer<String> onSuccess)
+        throws InterruptedException {
+        return run(name, requests, onSuccess, REQUESTS);
+    }
+
+    private LatencyRecorder run(String name, IntFunction<HttpRequest> requests, Consumer<String> onSuccess, int count)
+        throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder(name, count);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            executor.execute(
+                () -> {
+                    long begin = System.nanoTime();
+                    boolean success = false;
+                    try {
+                        HttpResponse<String> response = httpClient.send(requests.apply(index), HttpResponse.BodyHandlers.ofString());
+                        success = response.statusCode() < 400;
+                        if (success && onSuccess != null) {
+                            onSuccess.accept(response.body());
+                        }
+                    } catch (Exception e) {
+                        success = false;
+                    } finally {
+                        recorder.record(System.nanoTime() - begin, success);
+                    }
+                }
+            );
+        }
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.MINUTES);
+        recorder.setWallTimeNanos(System.nanoTime() - start);
+        return recorder;
+    }
+
+    /**
+     * topic_book 에 StockChanged 메시지를 쏟아 넣고, 컨슈머 그룹의 lag 이 0 이 될 때까지 주기적으로 기록한다.
+     */
+    private Map<String, Object> stockChangedFirehose(Long[] ids) throws Exception {
+        Map<String, Object> producerProps = new HashMap<>();
+        producerProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafkaBroker.getBrokersAsString());
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        long start = System.nanoTime();
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(producerProps, new StringSerializer(), new StringSerializer())) {
+            for (int i = 0; i < MESSAGES; i++) {
+                Long bookId = ids[i % ids.length];
+                String status = i % 2 == 0 ? "UNAVAILABLE" : "AVAILABLE";
+                producer.send(
+                    new ProducerRecord<>(BookConsumer.TOPIC, String.valueOf(bookId), "{\"bookId\":" + bookId + ",\"bookStatus\":\"" + status + "\"}")
+                );
+            }
+            producer.flush();
+        }
+        double produceSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        List<Map<String, Object>> lagOverTime = new ArrayList<>();
+        long lag;
+        try (
+            AdminClient adminClient = AdminClient.create(
+                Collections.singletonMap(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafkaBroker.getBrokersAsString())
+            )
+        ) {
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+            do {
+                lag = consumerLag(adminClient);
+                Map<String, Object> sample = new LinkedHashMap<>();
+                sample.put("elapsedMillis", (System.nanoTime() - start) / 1_000_000);
+                sample.put("lag", lag);
+                lagOverTime.add(sample);
+                if (lag > 0) {
+                    Thread.sleep(500);
+                }
+            } while (lag > 0 && System.nanoTime() < deadline);
+        }
+        double totalSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        Map<String, Object> consumer = new LinkedHashMap<>();
+        consumer.put("messages", MESSAGES);
+        consumer.put("produceSeconds", produceSeconds);
+        consumer.put("drainSeconds", totalSeconds);
+        consumer.put("throughputPerSecond", MESSAGES / totalSeconds);
+        consumer.put("finalLag", lag);
+        consumer.put("lagOverTime", lagOverTime);
+        assertThat(lag).as("consumer lag after firehose").isZero();
+        return consumer;
+    }
+
+    private long consumerLag(AdminClient adminClient) throws Exception {
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient
+            .listConsumerGroupOffsets(CONSUMER_GROUP)
+            .partitionsToOffsetAndMetadata()
+            .get();
+        Set<TopicPartition> partitions = new HashSet<>();
+        for (int partition = 0; partition < embeddedKafkaBroker.getPartitionsPerTopic(); partition++) {
+            partitions.add(new TopicPartition(BookConsumer.TOPIC, partition));
+        }
+        Map<TopicPartition, OffsetSpec> latest = partitions.stream().collect(Collectors.toMap(p -> p, p -> OffsetSpec.latest()));
+        long lag = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResultInfo> entry : adminClient.listOffsets(latest).all().get().entrySet()) {
+            OffsetAndMetadata offset = committed.get(entry.getKey());
+            lag += entry.getValue().offset() - (offset == null ? 0 : offset.offset());
+        }
+        return lag;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest
+            .newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", authorization)
+            .header("Content-Type", "application/json");
+    }
+
+    private String bookJson(Long id, int index) {
+        Map<String, Object> book = new LinkedHashMap<>();
+        if (id != null) {
+            book.put("id", id);
+        }
+        book.put("title", "부하 테스트 도서 " + index);
+        book.put("author", "저자 " + (index % 100));
+        book.put("description", "load test");
+        book.put("publisher", "book");
+        book.put("isbn", 9788900000000L + index);
+        book.put("publicationDate", "2021-06-01");
+        book.put("classification", "Science");
+        book.put("bookStatus", "AVAILABLE");
+        book.put("location", "PANGYO");
+        try {
+            return objectMapper.writeValueAsString(book);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Long readId(String body) {
+        try {
+            return objectMapper.readTree(body).get("id").asLong();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.my.book.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Collects the latencies of one load-test scenario and summarizes them.
+ */
+class LatencyRecorder {
+
+    private final String name;
+    private final long[] samples;
+    private final AtomicInteger count = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private long wallTimeNanos;
+
+    LatencyRecorder(String name, int capacity) {
+        this.name = name;
+        this.samples = new long[capacity];
+    }
+
+    void record(long latencyNanos, boolean success) {
+        int index = count.getAndIncrement();
+        if (index < samples.length) {
+            samples[index] = latencyNanos;
+        }
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    void setWallTimeNanos(long wallTimeNanos) {
+        this.wallTimeNanos = wallTimeNanos;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getErrors() {
+        return errors.get();
+    }
+
+    Map<String, Object> summary() {
+        int size = Math.min(count.get(), samples.length);
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", size);
+        summary.put("errors", errors.get());
+        summary.put("throughputPerSecond", wallTimeNanos == 0 ? 0 : size * 1_000_000_000.0 / wallTimeNanos);
+        summary.put("p50Millis", percentile(sorted, 0.50));
+        summary.put("p99Millis", percentile(sorted, 0.99));
+        summary.put("maxMillis", size == 0 ? 0 : sorted[size - 1] / 1_000_000.0);
+        return summary;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
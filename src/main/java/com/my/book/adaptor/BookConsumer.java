@@ -1,19 +1,28 @@
 package com.my.book.adaptor;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.my.book.config.KafkaProperties;
 import com.my.book.domain.event.StockChanged;
 import com.my.book.service.BookService;
-import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.PostConstruct;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -27,56 +36,181 @@ public class BookConsumer {
     // 토픽명
     public static final String TOPIC = "topic_book";
     private final KafkaProperties kafkaProperties;
-    private KafkaConsumer<String, String> kafkaConsumer;
+    private final BookEventCodec bookEventCodec;
+    private Consumer<String, StockChanged> kafkaConsumer;
     private BookService bookService;
-    private ExecutorService executorService = Executors.newCachedThreadPool();
+    private ExecutorService executorService = Executors.newSingleThreadExecutor();
+    private ExecutorService workerExecutorService;
 
-    public BookConsumer(KafkaProperties kafkaProperties, BookService bookService) {
+    // 아래 두 맵은 컨슈머 스레드에서만 사용
+    // 파티션별 연속 실패 횟수
+    private final Map<TopicPartition, Integer> failures = new HashMap<>();
+    // 재시도 대기 중인 (일시 중지된) 파티션과 재개 시각
+    private final Map<TopicPartition, Long> pausedUntil = new HashMap<>();
+
+    public BookConsumer(KafkaProperties kafkaProperties, BookService bookService, BookEventCodec bookEventCodec) {
         this.kafkaProperties = kafkaProperties;
         this.bookService = bookService;
+        this.bookEventCodec = bookEventCodec;
     }
 
     @PostConstruct
     public void start() {
         log.info("Kafka consumer starting...");
-        this.kafkaConsumer = new KafkaConsumer<String, String>(kafkaProperties.getConsumerProps());
+        // 오프셋은 배치 단위 DB 반영이 끝난 뒤에 직접 커밋
+        Map<String, Object> consumerProps = kafkaProperties.getConsumerProps();
+        consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        // kafka에서 읽은 메시지는 코덱의 Deserializer 가 대출 마이크로서비스가 보낸 StockChanged 도메인 이벤트로 변환
+        start(new KafkaConsumer<>(consumerProps, new StringDeserializer(), bookEventCodec.stockChangedDeserializer()));
         Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+    }
+
+    /**
+     * Subscribe {@code consumer} and process its records on the consumer thread until {@link #shutdown()}.
+     */
+    void start(Consumer<String, StockChanged> consumer) {
+        this.kafkaConsumer = consumer;
+        this.workerExecutorService = Executors.newFixedThreadPool(kafkaProperties.getConsumerWorkers());
 
         // 토픽 구독
         kafkaConsumer.subscribe(Collections.singleton(TOPIC));
-        log.info("Kafka consumer started");
+        log.info("Kafka consumer started with {} partition workers", kafkaProperties.getConsumerWorkers());
 
         executorService.execute(
             () -> {
                 try {
                     while (!closed.get()) {
-                        ConsumerRecords<String, String> records = kafkaConsumer.poll(Duration.ofSeconds(3));
-                        for (ConsumerRecord<String, String> record : records) {
-                            log.info("Consumer message in {} : {}", TOPIC, record.value());
-                            ObjectMapper objectMapper = new ObjectMapper();
-
-                            // kafka에서 읽은 메시지를 대출 마이크로서비스가 보낸 StockChanged 도메인 이벤트로 변환
-                            StockChanged stockChanged = objectMapper.readValue(record.value(), StockChanged.class);
-                            // 도메인 이벤트 정보로 bookService를 호출하여 도서 재고 상태를 update
-                            bookService.processChangeBookState(stockChanged.getBookId(), stockChanged.getBookStatus());
+                        resumeRetryablePartitions();
+                        ConsumerRecords<String, StockChanged> records = kafkaConsumer.poll(kafkaProperties.getPollTimeout());
+                        if (records.isEmpty()) {
+                            continue;
                         }
+                        // 파티션마다 하나의 워커가 poll 배치를 처리하므로 파티션 내 순서는 유지된다
+                        Map<TopicPartition, Future<OffsetAndMetadata>> pending = new HashMap<>();
+                        for (TopicPartition partition : records.partitions()) {
+                            List<ConsumerRecord<String, StockChanged>> partitionRecords = records.records(partition);
+                            // 재시도 한도를 넘긴 파티션은 레코드 단위로 처리해 처리할 수 없는 레코드만 건너뛴다
+                            boolean isolate = failures.getOrDefault(partition, 0) >= kafkaProperties.getConsumerMaxRetries();
+                            pending.put(
+                                partition,
+                                workerExecutorService.submit(
+                                    () -> isolate ? processEach(partition, partitionRecords) : processBatch(partition, partitionRecords)
+                                )
+                            );
+                        }
+                        commitProcessed(records, pending);
                     }
-                    kafkaConsumer.commitSync();
                 } catch (WakeupException e) {
                     if (!closed.get()) {
                         throw e;
                     }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 } catch (Exception e) {
                     log.error(e.getMessage(), e);
                 } finally {
                     log.info("kafka consumer close");
+                    workerExecutorService.shutdown();
                     kafkaConsumer.close();
                 }
             }
         );
     }
 
-    public KafkaConsumer<String, String> getKafkaConsumer() {
+    /**
+     * 한 파티션의 poll 배치를 하나의 트랜잭션으로 DB에 반영하고, 커밋할 다음 오프셋을 반환한다.
+     */
+    private OffsetAndMetadata processBatch(TopicPartition partition, List<ConsumerRecord<String, StockChanged>> partitionRecords) {
+        List<StockChanged> stockChangedList = new ArrayList<>(partitionRecords.size());
+        for (ConsumerRecord<String, StockChanged> record : partitionRecords) {
+            // 변환할 수 없었던 메시지는 재시도해도 실패하므로 건너뛴다
+            if (record.value() != null) {
+                stockChangedList.add(record.value());
+            }
+        }
+        // 도메인 이벤트 정보로 bookService를 호출하여 도서 재고 상태를 update
+        bookService.processChangeBookStates(stockChangedList);
+        long lastOffset = partitionRecords.get(partitionRecords.size() - 1).offset();
+        return new OffsetAndMetadata(lastOffset + 1);
+    }
+
+    /**
+     * 한 파티션의 poll 배치를 레코드마다 별도 트랜잭션으로 반영한다. 반영에 실패한 레코드는 로그를 남기고 건너뛴다.
+     */
+    private OffsetAndMetadata processEach(TopicPartition partition, List<ConsumerRecord<String, StockChanged>> partitionRecords) {
+        for (ConsumerRecord<String, StockChanged> record : partitionRecords) {
+            if (record.value() == null) {
+                continue;
+            }
+            try {
+                bookService.processChangeBookStates(Collections.singletonList(record.value()));
+            } catch (RuntimeException e) {
+                log.error("Skipping record {} at offset {} after repeated failures : {}", partition, record.offset(), record.value(), e);
+            }
+        }
+        long lastOffset = partitionRecords.get(partitionRecords.size() - 1).offset();
+        return new OffsetAndMetadata(lastOffset + 1);
+    }
+
+    /**
+     * DB 반영에 성공한 파티션의 오프셋만 커밋하고, 실패한 파티션은 배치 처음으로 되돌린 뒤 대기 시간 동안 일시 중지한다.
+     */
+    private void commitProcessed(ConsumerRecords<String, StockChanged> records, Map<TopicPartition, Future<OffsetAndMetadata>> pending)
+        throws InterruptedException {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (Map.Entry<TopicPartition, Future<OffsetAndMetadata>> entry : pending.entrySet()) {
+            TopicPartition partition = entry.getKey();
+            try {
+                offsets.put(partition, entry.getValue().get());
+                failures.remove(partition);
+            } catch (ExecutionException e) {
+                long firstOffset = records.records(partition).get(0).offset();
+                int attempts = failures.merge(partition, 1, Integer::sum);
+                // 재시도마다 대기 시간을 두 배로 늘려 DB 에 부하를 주지 않는다
+                long backoff = kafkaProperties.getConsumerRetryBackoff().toMillis() << Math.min(attempts - 1, 10);
+                log.error(
+                    "Failed to process batch of {} (attempt {}), retrying from offset {} in {} ms",
+                    partition,
+                    attempts,
+                    firstOffset,
+                    backoff,
+                    e.getCause()
+                );
+                kafkaConsumer.seek(partition, firstOffset);
+                kafkaConsumer.pause(Collections.singleton(partition));
+                pausedUntil.put(partition, System.currentTimeMillis() + backoff);
+            }
+        }
+        if (!offsets.isEmpty()) {
+            kafkaConsumer.commitSync(offsets);
+        }
+    }
+
+    private void resumeRetryablePartitions() {
+        if (pausedUntil.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<TopicPartition> resumable = new ArrayList<>();
+        pausedUntil
+            .entrySet()
+            .removeIf(
+                entry -> {
+                    if (entry.getValue() > now) {
+                        return false;
+                    }
+                    resumable.add(entry.getKey());
+                    return true;
+                }
+            );
+        // 리밸런싱으로 다른 컨슈머에 넘어간 파티션은 재개하지 않는다
+        resumable.retainAll(kafkaConsumer.assignment());
+        if (!resumable.isEmpty()) {
+            kafkaConsumer.resume(resumable);
+        }
+    }
+
+    public Consumer<String, StockChanged> getKafkaConsumer() {
         return kafkaConsumer;
     }
 
@@ -0,0 +1,93 @@
+package com.my.book.adaptor;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.my.book.config.KafkaProperties;
+import com.my.book.domain.event.BookChanged;
+import com.my.book.domain.event.StockChanged;
+import java.io.IOException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Encodes and decodes the Kafka domain events with prebuilt, thread-safe Jackson readers and writers.
+ * <p>
+ * The wire format is JSON by default, or CBOR when {@code kafka.event-format} is {@code cbor}.
+ * Outbox payloads are always stored as JSON.
+ */
+@Component
+public class BookEventCodec {
+
+    private final Logger log = LoggerFactory.getLogger(BookEventCodec.class);
+
+    private final ObjectReader stockChangedReader;
+    private final ObjectWriter bookChangedWriter;
+    private final ObjectReader outboxPayloadReader;
+    private final ObjectWriter outboxPayloadWriter;
+
+    public BookEventCodec(Jackson2ObjectMapperBuilder objectMapperBuilder, KafkaProperties kafkaProperties) {
+        ObjectMapper jsonMapper = objectMapperBuilder.build();
+        ObjectMapper wireMapper = kafkaProperties.getEventFormat() == KafkaProperties.EventFormat.CBOR
+            ? objectMapperBuilder.factory(new CBORFactory()).build()
+            : jsonMapper;
+        this.stockChangedReader = wireMapper.readerFor(StockChanged.class);
+        this.bookChangedWriter = wireMapper.writerFor(BookChanged.class).without(SerializationFeature.INDENT_OUTPUT);
+        this.outboxPayloadReader = jsonMapper.readerFor(BookChanged.class);
+        this.outboxPayloadWriter = jsonMapper.writerFor(BookChanged.class).without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    public StockChanged decodeStockChanged(byte[] data) throws IOException {
+        return stockChangedReader.readValue(data);
+    }
+
+    public byte[] encodeBookChanged(BookChanged bookChanged) throws JsonProcessingException {
+        return bookChangedWriter.writeValueAsBytes(bookChanged);
+    }
+
+    public String writeOutboxPayload(BookChanged bookChanged) throws JsonProcessingException {
+        return outboxPayloadWriter.writeValueAsString(bookChanged);
+    }
+
+    public BookChanged readOutboxPayload(String payload) throws JsonProcessingException {
+        return outboxPayloadReader.readValue(payload);
+    }
+
+    /**
+     * 변환할 수 없는 메시지는 poll 을 막지 않도록 null 로 넘기고, 컨슈머가 건너뛴다.
+     */
+    public Deserializer<StockChanged> stockChangedDeserializer() {
+        return (topic, data) -> {
+            if (data == null) {
+                return null;
+            }
+            try {
+                return decodeStockChanged(data);
+            } catch (IOException e) {
+                log.error("Skipping malformed StockChanged message on {}", topic, e);
+                return null;
+            }
+        };
+    }
+
+    public Serializer<BookChanged> bookChangedSerializer() {
+        return (topic, data) -> {
+            if (data == null) {
+                return null;
+            }
+            try {
+                return encodeBookChanged(data);
+            } catch (JsonProcessingException e) {
+                throw new SerializationException("Cannot serialize BookChanged event for " + topic, e);
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.my.book.adaptor;
+
+import com.my.book.config.KafkaProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.my.book.domain.BookOutbox;
+import com.my.book.repository.BookOutboxRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Relays the BookChanged events stored in the outbox table to Kafka.
+ * <p>
+ * Events of one book are sent in the order of their per-book version, which follows their commit order, with the book id as
+ * record key so that they stay in order on the topic. Outbox ids do not give that order: each instance pre-allocates its own
+ * block of ids from the sequence.
+ * A row is deleted only once the broker acknowledged it, which gives at-least-once delivery.
+ * Only the instance holding the relay lease sends events, so several instances do not send the same rows nor reorder them.
+ */
+@Component
+public class BookOutboxRelay {
+
+    private static final String LEASE_NAME = "book_outbox";
+
+    private final Logger log = LoggerFactory.getLogger(BookOutboxRelay.class);
+
+    // 임차를 가진 인스턴스 식별자
+    private final String owner = UUID.randomUUID().toString();
+
+    private final BookOutboxRepository bookOutboxRepository;
+    private final BookProducer bookProducer;
+    private final BookEventCodec bookEventCodec;
+    private final KafkaProperties kafkaProperties;
+
+    public BookOutboxRelay(
+        BookOutboxRepository bookOutboxRepository,
+        BookProducer bookProducer,
+        BookEventCodec bookEventCodec,
+        KafkaProperties kafkaProperties
+    ) {
+        this.bookOutboxRepository = bookOutboxRepository;
+        this.bookProducer = bookProducer;
+        this.bookEventCodec = bookEventCodec;
+        this.kafkaProperties = kafkaProperties;
+    }
+
+    @Scheduled(fixedDelayString = "${kafka.outbox-relay-interval:500}")
+    public void relay() {
+        int batchSize = kafkaProperties.getOutboxBatchSize();
+        boolean drained = false;
+        while (!drained) {
+            // 배치마다 임차를 갱신해, 전송 중에 다른 인스턴스가 같은 행을 보내지 않게 한다
+            if (!acquireLease()) {
+                return;
+            }
+            List<BookOutbox> pending = bookOutboxRepository.findAllByOrderByBookIdAscBookVersionAscIdAsc(PageRequest.of(0, batchSize));
+            if (pending.isEmpty()) {
+                return;
+            }
+            // 배치 전체를 먼저 전송하고 나서 응답을 기다린다
+            List<CompletableFuture<RecordMetadata>> results = new ArrayList<>(pending.size());
+            for (BookOutbox outbox : pending) {
+                results.add(send(outbox));
+            }
+            List<Long> published = new ArrayList<>(pending.size());
+            try {
+                for (int i = 0; i < pending.size(); i++) {
+                    results.get(i).get();
+                    published.add(pending.get(i).getId());
+                }
+            } catch (ExecutionException e) {
+                // 실패한 이벤트부터는 남겨 두고 다음 실행에서 다시 전송한다
+                log.warn("Failed to relay outbox event {}, will retry", pending.get(published.size()).getId(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                if (!published.isEmpty()) {
+                    bookOutboxRepository.deleteByIdIn(published);
+                }
+            }
+            log.debug("Relayed {} of {} outbox events", published.size(), pending.size());
+            drained = published.size() < pending.size() || pending.size() < batchSize;
+        }
+    }
+
+    private boolean acquireLease() {
+        Instant now = Instant.now();
+        return bookOutboxRepository.acquireLease(LEASE_NAME, owner, now, now.plus(kafkaProperties.getOutboxRelayLease())) == 1;
+    }
+
+    private CompletableFuture<RecordMetadata> send(BookOutbox outbox) {
+        try {
+            return bookProducer.sendBookChangedAsync(bookEventCodec.readOutboxPayload(outbox.getPayload()));
+        } catch (JsonProcessingException e) {
+            // 읽을 수 없는 이벤트는 재시도해도 실패하므로 버린다
+            log.error("Dropping unreadable outbox event {} : {}", outbox.getId(), outbox.getPayload(), e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
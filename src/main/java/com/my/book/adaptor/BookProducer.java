@@ -2,9 +2,17 @@ package com.my.book.adaptor;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.my.book.domain.event.BookChanged;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import org.apache.kafka.clients.producer.RecordMetadata;
 
 public interface BookProducer {
     void sendBookCreateEvent(BookChanged bookChanged) throws ExecutionException, InterruptedException, JsonProcessingException;
     void sendBookDeleteEvent(BookChanged bookDeleteEvent) throws ExecutionException, InterruptedException, JsonProcessingException;
+
+    // 응답을 기다리지 않고 BookChanged 이벤트를 bookId 키로 전송
+    CompletableFuture<RecordMetadata> sendBookChangedAsync(BookChanged bookChanged);
+
+    // 전송 대기 중인 메시지를 모두 브로커로 밀어낸다
+    void flush();
 }
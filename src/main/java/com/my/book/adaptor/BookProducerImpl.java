@@ -1,14 +1,15 @@
 package com.my.book.adaptor;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.my.book.config.KafkaProperties;
 import com.my.book.domain.event.BookChanged;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -22,29 +23,54 @@ public class BookProducerImpl implements BookProducer {
 
     private final KafkaProperties kafkaProperties;
 
-    private KafkaProducer<String, String> producer;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BookEventCodec bookEventCodec;
 
-    public BookProducerImpl(KafkaProperties kafkaProperties) {
+    private KafkaProducer<String, BookChanged> producer;
+
+    public BookProducerImpl(KafkaProperties kafkaProperties, BookEventCodec bookEventCodec) {
         this.kafkaProperties = kafkaProperties;
+        this.bookEventCodec = bookEventCodec;
     }
 
     @PostConstruct
     public void initialize() {
         log.info("Kafka producer initializing...");
-        this.producer = new KafkaProducer<>(kafkaProperties.getProducerProps());
+        this.producer = new KafkaProducer<>(kafkaProperties.getProducerProps(), new StringSerializer(), bookEventCodec.bookChangedSerializer());
         Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
         log.info("Kafka producer initialized");
     }
 
-    public void sendBookCreateEvent(BookChanged bookChanged) throws ExecutionException, InterruptedException, JsonProcessingException {
-        String message = objectMapper.writeValueAsString(bookChanged);
-        producer.send(new ProducerRecord<>(TOPIC_CATALOG, message)).get();
+    public void sendBookCreateEvent(BookChanged bookChanged) throws ExecutionException, InterruptedException {
+        sendBookChangedAsync(bookChanged).get();
+    }
+
+    public void sendBookDeleteEvent(BookChanged bookDeleteEvent) throws ExecutionException, InterruptedException {
+        sendBookChangedAsync(bookDeleteEvent).get();
+    }
+
+    public CompletableFuture<RecordMetadata> sendBookChangedAsync(BookChanged bookChanged) {
+        // bookId 를 키로 사용해 같은 도서의 이벤트가 같은 파티션으로 가도록 한다
+        String key = bookChanged.getBookId() == null ? null : String.valueOf(bookChanged.getBookId());
+        CompletableFuture<RecordMetadata> result = new CompletableFuture<>();
+        try {
+            producer.send(
+                new ProducerRecord<>(TOPIC_CATALOG, key, bookChanged),
+                (metadata, exception) -> {
+                    if (exception != null) {
+                        result.completeExceptionally(exception);
+                    } else {
+                        result.complete(metadata);
+                    }
+                }
+            );
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
     }
 
-    public void sendBookDeleteEvent(BookChanged bookDeleteEvent) throws ExecutionException, InterruptedException, JsonProcessingException {
-        String message = objectMapper.writeValueAsString(bookDeleteEvent);
-        producer.send(new ProducerRecord<>(TOPIC_CATALOG, message)).get();
+    public void flush() {
+        producer.flush();
     }
 
     @PreDestroy
@@ -1,5 +1,6 @@
 package com.my.book.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +10,125 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    // 대출 서비스가 호출하는 도서 정보(id -> 제목) 캐시
+    private final LocalCache bookInfoCache = new LocalCache(100_000, Duration.ofMinutes(10));
+
+    // 도서 목록 X-Total-Count 용 검색 조건별 건수 캐시
+    private final LocalCache bookCountCache = new LocalCache(1_000, Duration.ofMinutes(1));
+
+    // 도서 목록 페이지별 결과 id 캐시
+    private final LocalCache bookQueryCache = new LocalCache(10_000, Duration.ofMinutes(10));
+
+    // Hazelcast 2차 캐시 엔티티 영역 앞에 두는 인스턴스별 near cache
+    private final LocalCache entityNearCache = new LocalCache(10_000, Duration.ofMinutes(5));
+
+    // 기동 시 자주 조회되는 도서를 캐시에 미리 적재
+    private final WarmUp warmUp = new WarmUp();
+
+    public LocalCache getBookInfoCache() {
+        return bookInfoCache;
+    }
+
+    public LocalCache getBookCountCache() {
+        return bookCountCache;
+    }
+
+    public LocalCache getBookQueryCache() {
+        return bookQueryCache;
+    }
+
+    public LocalCache getEntityNearCache() {
+        return entityNearCache;
+    }
+
+    public WarmUp getWarmUp() {
+        return warmUp;
+    }
+
+    public static class WarmUp {
+
+        private boolean enabled = true;
+
+        // 미리 적재할 도서 수 (접근 횟수 상위)
+        private int size = 10_000;
+
+        private int batchSize = 500;
+
+        private int parallelism = 4;
+
+        // 이 시간이 지나면 적재가 끝나지 않아도 준비 완료로 보고한다
+        private Duration timeout = Duration.ofMinutes(2);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class LocalCache {
+
+        // 캐시할 항목 최대 개수
+        private long maximumSize;
+
+        // 다른 인스턴스의 변경이 반영되기까지의 최대 지연 시간
+        private Duration timeToLive;
+
+        public LocalCache(long maximumSize, Duration timeToLive) {
+            this.maximumSize = maximumSize;
+            this.timeToLive = timeToLive;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+}
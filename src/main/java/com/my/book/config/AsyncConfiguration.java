@@ -19,6 +19,14 @@ import tech.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
 @EnableScheduling
 public class AsyncConfiguration implements AsyncConfigurer {
 
+    /** Executor of the startup scans of the in-memory indexes, kept apart from {@code taskExecutor}. */
+    public static final String INDEX_TASK_EXECUTOR = "indexTaskExecutor";
+
+    // 시작 시 색인 스캔이 동시에 DB 를 읽는 수를 제한한다
+    private static final int INDEX_POOL_SIZE = 2;
+
+    private static final int INDEX_QUEUE_CAPACITY = 16;
+
     private final Logger log = LoggerFactory.getLogger(AsyncConfiguration.class);
 
     private final TaskExecutionProperties taskExecutionProperties;
@@ -39,6 +47,17 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    @Bean(name = INDEX_TASK_EXECUTOR)
+    public Executor indexTaskExecutor() {
+        log.debug("Creating Index Task Executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(INDEX_POOL_SIZE);
+        executor.setMaxPoolSize(INDEX_POOL_SIZE);
+        executor.setQueueCapacity(INDEX_QUEUE_CAPACITY);
+        executor.setThreadNamePrefix("book-index-");
+        return new ExceptionHandlingAsyncTaskExecutor(executor);
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
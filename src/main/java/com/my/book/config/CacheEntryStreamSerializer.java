@@ -0,0 +1,163 @@
+package com.my.book.config;
+
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.StreamSerializer;
+import com.my.book.domain.Book;
+import com.my.book.domain.InStockBook;
+import com.my.book.domain.enumeration.BookStatus;
+import com.my.book.domain.enumeration.Classification;
+import com.my.book.domain.enumeration.Location;
+import com.my.book.domain.enumeration.Source;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+
+/**
+ * Hazelcast serializer of the Hibernate second level cache entries of the entities.
+ * <p>
+ * An entry holds the disassembled property values of an entity. Instead of Java serialization of the entry and of each value,
+ * known entity names and enum types are written as a one byte code, enums as ordinals, dates as epoch days and other values in
+ * Hazelcast's native format, with a one byte tag per value.
+ * <p>
+ * Enum constants may be appended but not reordered or removed without changing {@link #TYPE_ID}, as members of the cluster running
+ * different versions would otherwise read each other's ordinals wrongly.
+ */
+public class CacheEntryStreamSerializer implements StreamSerializer<StandardCacheEntryImpl> {
+
+    public static final int TYPE_ID = 1001;
+
+    // 코드는 목록의 위치이므로 항목은 끝에만 추가한다
+    private static final List<String> ENTITY_NAMES = Arrays.asList(Book.class.getName(), InStockBook.class.getName());
+    private static final List<Class<? extends Enum<?>>> ENUM_TYPES = Arrays.asList(
+        BookStatus.class,
+        Classification.class,
+        Location.class,
+        Source.class
+    );
+
+    private static final byte UNKNOWN_ENTITY = -1;
+
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte STRING = 2;
+    private static final byte LOCAL_DATE = 3;
+    private static final byte INTEGER = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte OBJECT = 6;
+    private static final byte ENUM = 16;
+
+    // Hibernate 는 캐시 항목을 분해된 상태로 다시 만드는 생성자를 공개하지 않는다
+    private static final Constructor<StandardCacheEntryImpl> CONSTRUCTOR = findConstructor();
+
+    @Override
+    public int getTypeId() {
+        return TYPE_ID;
+    }
+
+    @Override
+    public void write(ObjectDataOutput out, StandardCacheEntryImpl entry) throws IOException {
+        int entity = ENTITY_NAMES.indexOf(entry.getSubclass());
+        out.writeByte(entity);
+        if (entity < 0) {
+            out.writeUTF(entry.getSubclass());
+        }
+        out.writeObject(entry.getVersion());
+        Serializable[] state = entry.getDisassembledState();
+        out.writeInt(state.length);
+        for (Serializable value : state) {
+            writeValue(out, value);
+        }
+    }
+
+    @Override
+    public StandardCacheEntryImpl read(ObjectDataInput in) throws IOException {
+        byte entity = in.readByte();
+        String subclass = entity == UNKNOWN_ENTITY ? in.readUTF() : ENTITY_NAMES.get(entity);
+        Object version = in.readObject();
+        Serializable[] state = new Serializable[in.readInt()];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = readValue(in);
+        }
+        return newEntry(state, subclass, version);
+    }
+
+    static StandardCacheEntryImpl newEntry(Serializable[] state, String subclass, Object version) {
+        try {
+            if (CONSTRUCTOR.getParameterCount() == 3) {
+                return CONSTRUCTOR.newInstance(state, subclass, version);
+            }
+            return CONSTRUCTOR.newInstance(state, null, subclass, version);
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create a cache entry of " + subclass, e);
+        }
+    }
+
+    private static void writeValue(ObjectDataOutput out, Serializable value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            out.writeUTF((String) value);
+        } else if (value instanceof LocalDate) {
+            out.writeByte(LOCAL_DATE);
+            out.writeLong(((LocalDate) value).toEpochDay());
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Enum && ENUM_TYPES.contains(((Enum<?>) value).getDeclaringClass())) {
+            out.writeByte(ENUM + ENUM_TYPES.indexOf(((Enum<?>) value).getDeclaringClass()));
+            out.writeShort(((Enum<?>) value).ordinal());
+        } else {
+            out.writeByte(OBJECT);
+            out.writeObject(value);
+        }
+    }
+
+    private static Serializable readValue(ObjectDataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case LONG:
+                return in.readLong();
+            case STRING:
+                return in.readUTF();
+            case LOCAL_DATE:
+                return LocalDate.ofEpochDay(in.readLong());
+            case INTEGER:
+                return in.readInt();
+            case BOOLEAN:
+                return in.readBoolean();
+            case OBJECT:
+                return in.readObject();
+            default:
+                Class<? extends Enum<?>> enumType = ENUM_TYPES.get(tag - ENUM);
+                return enumType.getEnumConstants()[in.readShort()];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Constructor<StandardCacheEntryImpl> findConstructor() {
+        for (Constructor<?> constructor : StandardCacheEntryImpl.class.getDeclaredConstructors()) {
+            Class<?>[] types = constructor.getParameterTypes();
+            boolean disassembled = types.length > 0 && types[0] == Serializable[].class;
+            if (disassembled && (types.length == 3 || types.length == 4)) {
+                constructor.setAccessible(true);
+                return (Constructor<StandardCacheEntryImpl>) constructor;
+            }
+        }
+        throw new IllegalStateException("No disassembled state constructor found on " + StandardCacheEntryImpl.class.getName());
+    }
+}
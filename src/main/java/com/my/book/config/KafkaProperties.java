@@ -1,5 +1,6 @@
 package com.my.book.config;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -15,6 +16,30 @@ public class KafkaProperties {
 
     private Map<String, String> producer = new HashMap<>();
 
+    // 파티션별 배치를 처리하는 컨슈머 워커 스레드 수
+    private int consumerWorkers = 4;
+
+    // 컨슈머 poll 대기 시간
+    private Duration pollTimeout = Duration.ofSeconds(3);
+
+    // 배치 처리에 실패한 파티션을 다시 시도할 최대 횟수 (넘으면 레코드 단위로 처리하고 실패한 레코드는 건너뜀)
+    private int consumerMaxRetries = 5;
+
+    // 재시도 대기 시간 (재시도마다 두 배)
+    private Duration consumerRetryBackoff = Duration.ofSeconds(1);
+
+    // 아웃박스 릴레이가 한 번에 전송할 최대 이벤트 수
+    private int outboxBatchSize = 500;
+
+    // 아웃박스 릴레이 실행 간격(ms)
+    private long outboxRelayInterval = 500;
+
+    // 아웃박스 릴레이 임차 시간 (이 시간 동안 갱신하지 못하면 다른 인스턴스가 릴레이를 이어받음)
+    private Duration outboxRelayLease = Duration.ofSeconds(30);
+
+    // 도메인 이벤트 메시지 포맷
+    private EventFormat eventFormat = EventFormat.JSON;
+
     public String getBootStrapServers() {
         return bootStrapServers;
     }
@@ -35,6 +60,70 @@ public class KafkaProperties {
         this.consumer = consumer;
     }
 
+    public int getConsumerWorkers() {
+        return consumerWorkers;
+    }
+
+    public void setConsumerWorkers(int consumerWorkers) {
+        this.consumerWorkers = consumerWorkers;
+    }
+
+    public Duration getPollTimeout() {
+        return pollTimeout;
+    }
+
+    public void setPollTimeout(Duration pollTimeout) {
+        this.pollTimeout = pollTimeout;
+    }
+
+    public int getConsumerMaxRetries() {
+        return consumerMaxRetries;
+    }
+
+    public void setConsumerMaxRetries(int consumerMaxRetries) {
+        this.consumerMaxRetries = consumerMaxRetries;
+    }
+
+    public Duration getConsumerRetryBackoff() {
+        return consumerRetryBackoff;
+    }
+
+    public void setConsumerRetryBackoff(Duration consumerRetryBackoff) {
+        this.consumerRetryBackoff = consumerRetryBackoff;
+    }
+
+    public int getOutboxBatchSize() {
+        return outboxBatchSize;
+    }
+
+    public void setOutboxBatchSize(int outboxBatchSize) {
+        this.outboxBatchSize = outboxBatchSize;
+    }
+
+    public long getOutboxRelayInterval() {
+        return outboxRelayInterval;
+    }
+
+    public void setOutboxRelayInterval(long outboxRelayInterval) {
+        this.outboxRelayInterval = outboxRelayInterval;
+    }
+
+    public Duration getOutboxRelayLease() {
+        return outboxRelayLease;
+    }
+
+    public void setOutboxRelayLease(Duration outboxRelayLease) {
+        this.outboxRelayLease = outboxRelayLease;
+    }
+
+    public EventFormat getEventFormat() {
+        return eventFormat;
+    }
+
+    public void setEventFormat(EventFormat eventFormat) {
+        this.eventFormat = eventFormat;
+    }
+
     public Map<String, Object> getProducerProps() {
         Map<String, Object> properties = new HashMap<>(this.producer);
         if (!properties.containsKey("bootstrap.servers")) {
@@ -46,4 +135,9 @@ public class KafkaProperties {
     public void setProducer(Map<String, String> producer) {
         this.producer = producer;
     }
+
+    public enum EventFormat {
+        JSON,
+        CBOR,
+    }
 }
@@ -0,0 +1,68 @@
+package com.my.book.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A BookChanged event recorded in the same transaction as the book write,
+ * waiting to be relayed to Kafka.
+ */
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "book_outbox")
+public class BookOutbox implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    // 같은 도서의 이벤트끼리는 이 값이 커밋 순서를 따른다 (아웃박스 id 는 인스턴스마다 미리 할당되어 커밋 순서와 무관)
+    @Column(name = "book_version", nullable = false)
+    private Long bookVersion;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    public BookOutbox bookId(Long bookId) {
+        this.bookId = bookId;
+        return this;
+    }
+
+    public BookOutbox bookVersion(Long bookVersion) {
+        this.bookVersion = bookVersion;
+        return this;
+    }
+
+    public BookOutbox eventType(String eventType) {
+        this.eventType = eventType;
+        return this;
+    }
+
+    public BookOutbox payload(String payload) {
+        this.payload = payload;
+        return this;
+    }
+
+    public BookOutbox createdDate(Instant createdDate) {
+        this.createdDate = createdDate;
+        return this;
+    }
+}
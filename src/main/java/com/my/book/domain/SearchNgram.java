@@ -0,0 +1,83 @@
+package com.my.book.domain;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * One Hangul bigram of a text field of a {@link Book} or {@link InStockBook}.
+ * The primary key (entity type, field, gram, entity id) is the lookup index of infix searches.
+ */
+@Getter
+@Setter
+@ToString
+@Entity
+@Table(name = "search_ngram")
+@IdClass(SearchNgram.SearchNgramId.class)
+public class SearchNgram implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum EntityType {
+        BOOK,
+        IN_STOCK_BOOK,
+    }
+
+    public enum FieldName {
+        TITLE,
+        AUTHOR,
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private EntityType entityType;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "field_name", nullable = false)
+    private FieldName fieldName;
+
+    @Id
+    @Column(name = "gram", nullable = false)
+    private String gram;
+
+    @Id
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    public static class SearchNgramId implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private EntityType entityType;
+        private FieldName fieldName;
+        private String gram;
+        private Long entityId;
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SearchNgramId)) {
+                return false;
+            }
+            SearchNgramId that = (SearchNgramId) o;
+            return (
+                entityType == that.entityType &&
+                fieldName == that.fieldName &&
+                Objects.equals(gram, that.gram) &&
+                Objects.equals(entityId, that.entityId)
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(entityType, fieldName, gram, entityId);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.my.book.repository;
+
+import com.my.book.domain.BookOutbox;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data SQL repository for the BookOutbox entity.
+ */
+@Repository
+public interface BookOutboxRepository extends JpaRepository<BookOutbox, Long> {
+    // 같은 도서의 이벤트는 커밋 순서를 따르는 bookVersion 순으로 (id 는 인스턴스마다 미리 할당되어 커밋 순서와 무관)
+    List<BookOutbox> findAllByOrderByBookIdAscBookVersionAscIdAsc(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from BookOutbox o where o.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Take or renew the relay lease {@code name} for {@code owner} until {@code until}, unless another owner holds it past {@code now}.
+     *
+     * @return 1 if {@code owner} holds the lease, 0 otherwise.
+     */
+    @Transactional
+    @Modifying
+    @Query(
+        value = "update outbox_relay_lease set locked_until = :until, locked_by = :owner " +
+        "where name = :name and (locked_until < :now or locked_by = :owner)",
+        nativeQuery = true
+    )
+    int acquireLease(@Param("name") String name, @Param("owner") String owner, @Param("now") Instant now, @Param("until") Instant until);
+}
@@ -1,7 +1,14 @@
 package com.my.book.repository;
 
 import com.my.book.domain.Book;
+import com.my.book.web.rest.dto.BookInfoDTO;
+import com.my.book.web.rest.dto.SearchTextDTO;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +16,43 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {}
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookRepositoryCustom {
+    // 엔티티 전체를 읽지 않고 id, 제목만 조회
+    @Query("select new com.my.book.web.rest.dto.BookInfoDTO(b.id, b.title) from Book b where b.id = :id")
+    Optional<BookInfoDTO> findBookInfoById(@Param("id") Long id);
+
+    @Query("select new com.my.book.web.rest.dto.BookInfoDTO(b.id, b.title) from Book b where b.id in :ids")
+    List<BookInfoDTO> findBookInfoByIdIn(@Param("ids") Collection<Long> ids);
+
+    // isbn 색인 적재용으로 엔티티 없이 (id, isbn) 만 id 순으로 조회
+    @Query("select b.id, b.isbn from Book b where b.id > :id and b.isbn is not null order by b.id")
+    List<Object[]> findIdAndIsbnByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query("select b.id, b.isbn from Book b where b.id in :ids and b.isbn is not null")
+    List<Object[]> findIdAndIsbnByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 색인 적재용으로 엔티티와 2차 캐시를 거치지 않고 색인 대상 필드만 id 순으로 조회
+    @Query(
+        "select new com.my.book.web.rest.dto.SearchTextDTO(b.id, b.title, b.author, b.publisher, b.description) " +
+        "from Book b where b.id > :id order by b.id"
+    )
+    List<SearchTextDTO> findSearchTextByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query(
+        "select new com.my.book.web.rest.dto.SearchTextDTO(b.id, b.title, b.author, b.publisher, b.description) " +
+        "from Book b where b.id in :ids"
+    )
+    List<SearchTextDTO> findSearchTextByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.id, b.title, b.author from Book b where b.id > :id order by b.id")
+    List<Object[]> findIdTitleAndAuthorByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query("select b.id, b.title, b.author from Book b where b.id in :ids")
+    List<Object[]> findIdTitleAndAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
+    Optional<Book> findFirstByIsbnOrderByIdAsc(Long isbn);
+
+    // 접근 기록이 없을 때 미리 읽어 둘 최근 등록 도서
+    @Query("select b.id from Book b order by b.id desc")
+    List<Long> findLatestIds(Pageable pageable);
+}
@@ -0,0 +1,50 @@
+package com.my.book.repository;
+
+import com.my.book.domain.enumeration.BookStatus;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk operations on the Book entity that bypass entity loading.
+ */
+public interface BookRepositoryCustom {
+    /**
+     * Update the status of many books with set-based statements, without loading the entities.
+     * The second-level cache entries of the updated books are evicted.
+     *
+     * @param bookStatuses the new status per book id.
+     * @return the number of updated rows.
+     */
+    int updateBookStatuses(Map<Long, BookStatus> bookStatuses);
+
+    /**
+     * Replace the saved access counts with {@code accessCounts}.
+     *
+     * @param accessCounts the access count per book id.
+     */
+    void replaceAccessSnapshot(Map<Long, Long> accessCounts);
+
+    /**
+     * The ids of the most accessed books of the saved access counts, most accessed first.
+     *
+     * @param limit the maximum number of ids.
+     * @return the book ids.
+     */
+    List<Long> findMostAccessedBookIds(int limit);
+
+    /**
+     * The saved access counts.
+     *
+     * @return the access count per book id.
+     */
+    Map<Long, Long> findAccessCounts();
+
+    /**
+     * Increment and return the outbox version of a book.
+     * The row lock taken by the increment is held until commit, so the versions of one book follow the commit order of its events.
+     *
+     * @param bookId the id of an existing book.
+     * @return the new outbox version.
+     */
+    long nextOutboxVersion(Long bookId);
+}
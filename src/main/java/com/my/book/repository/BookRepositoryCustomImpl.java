@@ -0,0 +1,133 @@
+package com.my.book.repository;
+
+import com.my.book.domain.Book;
+import com.my.book.domain.enumeration.BookStatus;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    // IN 절 하나에 넣을 최대 id 수
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
+    private static final String UPDATE_BOOK_STATUS_SQL = "update book set book_status = :bookStatus where id in (:ids)";
+
+    private static final String DELETE_ACCESS_SNAPSHOT_SQL = "delete from book_access_snapshot";
+
+    private static final String INSERT_ACCESS_SNAPSHOT_SQL =
+        "insert into book_access_snapshot (book_id, access_count) values (:bookId, :accessCount)";
+
+    private static final String SELECT_MOST_ACCESSED_SQL =
+        "select book_id from book_access_snapshot order by access_count desc, book_id limit :limit";
+
+    private static final String SELECT_ACCESS_COUNTS_SQL = "select book_id, access_count from book_access_snapshot";
+
+    private static final String INCREMENT_OUTBOX_VERSION_SQL = "update book set outbox_version = outbox_version + 1 where id = :id";
+
+    private static final String SELECT_OUTBOX_VERSION_SQL = "select outbox_version from book where id = :id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final EntityManager entityManager;
+
+    public BookRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateBookStatuses(Map<Long, BookStatus> bookStatuses) {
+        if (bookStatuses.isEmpty()) {
+            return 0;
+        }
+        // JDBC 로 직접 갱신하기 전에 영속성 컨텍스트에 쌓인 변경 내용을 먼저 반영
+        entityManager.flush();
+
+        // 상태 값은 몇 개뿐이므로 상태별로 하나의 UPDATE ... IN 문으로 묶는다
+        Map<BookStatus, List<Long>> idsByStatus = new EnumMap<>(BookStatus.class);
+        bookStatuses.forEach((bookId, bookStatus) -> idsByStatus.computeIfAbsent(bookStatus, status -> new ArrayList<>()).add(bookId));
+
+        int updated = 0;
+        for (Map.Entry<BookStatus, List<Long>> entry : idsByStatus.entrySet()) {
+            List<Long> ids = entry.getValue();
+            for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+                MapSqlParameterSource parameters = new MapSqlParameterSource()
+                    .addValue("bookStatus", entry.getKey().name())
+                    .addValue("ids", chunk);
+                updated += jdbcTemplate.update(UPDATE_BOOK_STATUS_SQL, parameters);
+            }
+        }
+        evictFromSecondLevelCache(bookStatuses.keySet());
+        return updated;
+    }
+
+    @Override
+    public void replaceAccessSnapshot(Map<Long, Long> accessCounts) {
+        jdbcTemplate.getJdbcOperations().update(DELETE_ACCESS_SNAPSHOT_SQL);
+        List<SqlParameterSource> rows = new ArrayList<>(accessCounts.size());
+        accessCounts.forEach(
+            (bookId, accessCount) -> rows.add(new MapSqlParameterSource().addValue("bookId", bookId).addValue("accessCount", accessCount))
+        );
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ACCESS_SNAPSHOT_SQL, rows.toArray(new SqlParameterSource[0]));
+        }
+    }
+
+    @Override
+    public List<Long> findMostAccessedBookIds(int limit) {
+        return jdbcTemplate.queryForList(SELECT_MOST_ACCESSED_SQL, new MapSqlParameterSource("limit", limit), Long.class);
+    }
+
+    @Override
+    public Map<Long, Long> findAccessCounts() {
+        Map<Long, Long> accessCounts = new HashMap<>();
+        jdbcTemplate
+            .getJdbcOperations()
+            .query(
+                SELECT_ACCESS_COUNTS_SQL,
+                (RowCallbackHandler) rs -> accessCounts.put(rs.getLong("book_id"), rs.getLong("access_count"))
+            );
+        return accessCounts;
+    }
+
+    /**
+     * 엔티티를 거치지 않은 갱신이므로 2차 캐시의 Book 항목을 직접 지운다.
+     * 커밋 전에 다른 트랜잭션이 이전 값을 다시 캐시에 올릴 수 있어 커밋 후에도 한 번 더 지운다.
+     */
+    @Override
+    public long nextOutboxVersion(Long bookId) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource().addValue("id", bookId);
+        // 같은 도서에 이벤트를 기록하는 다른 트랜잭션은 이 행 잠금에서 커밋까지 기다린다
+        jdbcTemplate.update(INCREMENT_OUTBOX_VERSION_SQL, parameters);
+        return jdbcTemplate.queryForObject(SELECT_OUTBOX_VERSION_SQL, parameters, Long.class);
+    }
+
+    private void evictFromSecondLevelCache(Collection<Long> bookIds) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        List<Long> ids = new ArrayList<>(bookIds);
+        ids.forEach(id -> cache.evict(Book.class, id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        ids.forEach(id -> cache.evict(Book.class, id));
+                    }
+                }
+            );
+        }
+    }
+}
@@ -1,14 +1,41 @@
 package com.my.book.repository;
 
 import com.my.book.domain.InStockBook;
+import com.my.book.web.rest.dto.SearchTextDTO;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @SuppressWarnings("unused")
 @Repository
 public interface InStockBookRepository extends JpaRepository<InStockBook, Long>, JpaSpecificationExecutor<InStockBook> {
     Page<InStockBook> findByTitleContaining(String title, Pageable pageable);
+
+    // 색인 적재용으로 엔티티와 2차 캐시를 거치지 않고 색인 대상 필드만 id 순으로 조회
+    @Query(
+        "select new com.my.book.web.rest.dto.SearchTextDTO(b.id, b.title, b.author, b.publisher, b.description) " +
+        "from InStockBook b where b.id > :id order by b.id"
+    )
+    List<SearchTextDTO> findSearchTextByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query(
+        "select new com.my.book.web.rest.dto.SearchTextDTO(b.id, b.title, b.author, b.publisher, b.description) " +
+        "from InStockBook b where b.id in :ids"
+    )
+    List<SearchTextDTO> findSearchTextByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.id, b.title, b.author from InStockBook b where b.id > :id order by b.id")
+    List<Object[]> findIdTitleAndAuthorByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    // 엔티티를 읽지 않고 한 번의 delete 문으로 삭제
+    @Modifying
+    @Query("delete from InStockBook b where b.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,12 @@
+package com.my.book.repository;
+
+import com.my.book.domain.SearchNgram;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data SQL repository for the SearchNgram entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface SearchNgramRepository extends JpaRepository<SearchNgram, SearchNgram.SearchNgramId>, SearchNgramRepositoryCustom {}
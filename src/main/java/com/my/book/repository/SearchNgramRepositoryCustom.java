@@ -0,0 +1,27 @@
+package com.my.book.repository;
+
+import com.my.book.domain.SearchNgram;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface SearchNgramRepositoryCustom {
+    // 엔티티 하나의 n-gram 을 모두 지우고 새로 기록
+    void replaceGrams(SearchNgram.EntityType entityType, Long entityId, Map<SearchNgram.FieldName, Set<String>> grams);
+
+    // 엔티티 여러 개의 n-gram 을 한 번의 배치로 기록 (기존 n-gram 이 없는 엔티티용)
+    void insertGrams(SearchNgram.EntityType entityType, Map<Long, Map<SearchNgram.FieldName, Set<String>>> gramsByEntityId);
+
+    // 아직 기록되지 않은 n-gram 만 기록 (다시 실행해도 같은 결과)
+    void insertMissingGrams(SearchNgram.EntityType entityType, Map<Long, Map<SearchNgram.FieldName, Set<String>>> gramsByEntityId);
+
+    void deleteGrams(SearchNgram.EntityType entityType, Long entityId);
+
+    // 주어진 엔티티 중 n-gram 이 기록된 엔티티의 id
+    Set<Long> findIndexedEntityIds(SearchNgram.EntityType entityType, Collection<Long> entityIds);
+
+    // 모든 행의 n-gram 을 채운 것으로 기록된 엔티티 종류
+    Set<SearchNgram.EntityType> findBackfilledEntityTypes();
+
+    void markBackfilled(SearchNgram.EntityType entityType);
+}
@@ -0,0 +1,127 @@
+package com.my.book.repository;
+
+import com.my.book.domain.SearchNgram;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+public class SearchNgramRepositoryCustomImpl implements SearchNgramRepositoryCustom {
+
+    private static final String INSERT_SQL =
+        "insert into search_ngram (entity_type, field_name, gram, entity_id) values (:entityType, :fieldName, :gram, :entityId)";
+
+    private static final String DELETE_SQL = "delete from search_ngram where entity_type = :entityType and entity_id = :entityId";
+
+    private static final String SELECT_INDEXED_SQL =
+        "select distinct entity_id from search_ngram where entity_type = :entityType and entity_id in (:entityIds)";
+
+    private static final String SELECT_GRAMS_SQL =
+        "select entity_id, field_name, gram from search_ngram where entity_type = :entityType and entity_id in (:entityIds)";
+
+    private static final String SELECT_BACKFILLED_SQL = "select entity_type from search_ngram_backfill where backfilled = true";
+
+    private static final String MARK_BACKFILLED_SQL = "update search_ngram_backfill set backfilled = true where entity_type = :entityType";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SearchNgramRepositoryCustomImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void replaceGrams(SearchNgram.EntityType entityType, Long entityId, Map<SearchNgram.FieldName, Set<String>> grams) {
+        deleteGrams(entityType, entityId);
+        insertGrams(entityType, Collections.singletonMap(entityId, grams));
+    }
+
+    @Override
+    public void insertGrams(SearchNgram.EntityType entityType, Map<Long, Map<SearchNgram.FieldName, Set<String>>> gramsByEntityId) {
+        insertRows(entityType, gramsByEntityId, Collections.emptySet());
+    }
+
+    @Override
+    public void insertMissingGrams(SearchNgram.EntityType entityType, Map<Long, Map<SearchNgram.FieldName, Set<String>>> gramsByEntityId) {
+        if (gramsByEntityId.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("entityType", entityType.name())
+            .addValue("entityIds", gramsByEntityId.keySet());
+        Set<List<Object>> existing = new HashSet<>(
+            jdbcTemplate.query(
+                SELECT_GRAMS_SQL,
+                parameters,
+                (rs, rowNum) -> List.of(rs.getLong("entity_id"), rs.getString("field_name"), rs.getString("gram"))
+            )
+        );
+        insertRows(entityType, gramsByEntityId, existing);
+    }
+
+    private void insertRows(
+        SearchNgram.EntityType entityType,
+        Map<Long, Map<SearchNgram.FieldName, Set<String>>> gramsByEntityId,
+        Set<List<Object>> existing
+    ) {
+        List<SqlParameterSource> rows = new ArrayList<>();
+        gramsByEntityId.forEach(
+            (entityId, grams) ->
+                grams.forEach(
+                    (fieldName, fieldGrams) -> {
+                        for (String gram : fieldGrams) {
+                            if (existing.contains(List.of(entityId, fieldName.name(), gram))) {
+                                continue;
+                            }
+                            rows.add(
+                                new MapSqlParameterSource()
+                                    .addValue("entityType", entityType.name())
+                                    .addValue("fieldName", fieldName.name())
+                                    .addValue("gram", gram)
+                                    .addValue("entityId", entityId)
+                            );
+                        }
+                    }
+                )
+        );
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows.toArray(new SqlParameterSource[0]));
+        }
+    }
+
+    @Override
+    public void deleteGrams(SearchNgram.EntityType entityType, Long entityId) {
+        jdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource().addValue("entityType", entityType.name()).addValue("entityId", entityId));
+    }
+
+    @Override
+    public Set<Long> findIndexedEntityIds(SearchNgram.EntityType entityType, Collection<Long> entityIds) {
+        if (entityIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("entityType", entityType.name())
+            .addValue("entityIds", entityIds);
+        return new HashSet<>(jdbcTemplate.queryForList(SELECT_INDEXED_SQL, parameters, Long.class));
+    }
+
+    @Override
+    public Set<SearchNgram.EntityType> findBackfilledEntityTypes() {
+        Set<SearchNgram.EntityType> entityTypes = EnumSet.noneOf(SearchNgram.EntityType.class);
+        jdbcTemplate
+            .queryForList(SELECT_BACKFILLED_SQL, new MapSqlParameterSource(), String.class)
+            .forEach(entityType -> entityTypes.add(SearchNgram.EntityType.valueOf(entityType)));
+        return entityTypes;
+    }
+
+    @Override
+    public void markBackfilled(SearchNgram.EntityType entityType) {
+        jdbcTemplate.update(MARK_BACKFILLED_SQL, new MapSqlParameterSource().addValue("entityType", entityType.name()));
+    }
+}
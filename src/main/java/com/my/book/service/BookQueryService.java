@@ -3,18 +3,46 @@ package com.my.book.service;
 import com.my.book.domain.*; // for static metamodels
 import com.my.book.domain.Book;
 import com.my.book.repository.BookRepository;
+import com.my.book.service.cache.BookCountCache;
+import com.my.book.service.cache.BookQueryResultCache;
 import com.my.book.service.criteria.BookCriteria;
+import com.my.book.service.keyset.KeysetCursor;
+import com.my.book.service.keyset.KeysetQuery;
+import com.my.book.service.search.BookFuzzyIndex;
+import com.my.book.service.search.BookSearchIndex;
+import com.my.book.service.search.NgramSpecifications;
+import com.my.book.service.search.SearchNgramIndexer;
 import com.my.book.web.rest.dto.BookDTO;
 import com.my.book.web.rest.mapper.BookMapper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.hibernate.CacheMode;
+import org.hibernate.jpa.QueryHints;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.StringFilter;
 
 /**
  * Service for executing complex queries for {@link Book} entities in the database.
@@ -28,13 +56,49 @@ public class BookQueryService extends QueryService<Book> {
 
     private final Logger log = LoggerFactory.getLogger(BookQueryService.class);
 
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // 퍼지 검색 후보의 최대 개수와 조건 필터링 시 in 절 하나에 넣는 id 수
+    private static final int MAX_FUZZY_CANDIDATES = 10_000;
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    // keyset 페이지 정렬이 허용되는 속성 (null 이 없고 (속성, id) 인덱스가 있는 컬럼)
+    public static final Set<String> KEYSET_SORT_PROPERTIES = Set.of(KeysetCursor.ID, "title", "author");
+
     private final BookRepository bookRepository;
 
     private final BookMapper bookMapper;
 
-    public BookQueryService(BookRepository bookRepository, BookMapper bookMapper) {
+    private final EntityManager entityManager;
+
+    private final BookCountCache bookCountCache;
+
+    private final BookSearchIndex bookSearchIndex;
+
+    private final BookFuzzyIndex bookFuzzyIndex;
+
+    private final BookQueryResultCache bookQueryResultCache;
+
+    private final SearchNgramIndexer searchNgramIndexer;
+
+    public BookQueryService(
+        BookRepository bookRepository,
+        BookMapper bookMapper,
+        EntityManager entityManager,
+        BookCountCache bookCountCache,
+        BookSearchIndex bookSearchIndex,
+        BookFuzzyIndex bookFuzzyIndex,
+        BookQueryResultCache bookQueryResultCache,
+        SearchNgramIndexer searchNgramIndexer
+    ) {
         this.bookRepository = bookRepository;
         this.bookMapper = bookMapper;
+        this.entityManager = entityManager;
+        this.bookCountCache = bookCountCache;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookFuzzyIndex = bookFuzzyIndex;
+        this.bookQueryResultCache = bookQueryResultCache;
+        this.searchNgramIndexer = searchNgramIndexer;
     }
 
     /**
@@ -49,17 +113,194 @@ public class BookQueryService extends QueryService<Book> {
         return bookMapper.toDto(bookRepository.findAll(specification));
     }
 
+    /**
+     * Stream every {@link BookDTO} which matches the criteria, ordered by id, to {@code action} one at a time.
+     * Rows are read through a forward-only cursor and each entity is detached once mapped, so memory use does not grow with the result.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param action receives each matching entity.
+     */
+    @Transactional(readOnly = true)
+    public void streamByCriteria(BookCriteria criteria, Consumer<BookDTO> action) {
+        log.debug("stream by criteria : {}", criteria);
+        final Specification<Book> specification = createSpecification(criteria);
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = builder.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(root).orderBy(builder.asc(root.get(Book_.id)));
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        TypedQuery<Book> typedQuery = entityManager
+            .createQuery(query)
+            .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+            .setHint(QueryHints.HINT_READONLY, true)
+            // 전체 내보내기가 2차 캐시를 밀어내지 않도록 캐시를 거치지 않는다
+            .setHint(QueryHints.HINT_CACHE_MODE, CacheMode.IGNORE);
+        try (Stream<Book> books = typedQuery.getResultStream()) {
+            books.forEach(
+                book -> {
+                    BookDTO bookDTO = bookMapper.toDto(book);
+                    entityManager.detach(book);
+                    action.accept(bookDTO);
+                }
+            );
+        }
+    }
+
     /**
      * Return a {@link Page} of {@link BookDTO} which matches the criteria from the database.
+     * The total is served from {@link BookCountCache} and may be an estimate, see {@link EstimatedPage#isTotalExact()}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<BookDTO> findByCriteria(BookCriteria criteria, Pageable page) {
+    public EstimatedPage<BookDTO> findByCriteria(BookCriteria criteria, Pageable page) {
         log.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Book> specification = createSpecification(criteria);
-        return bookRepository.findAll(specification, page).map(bookMapper::toDto);
+        // 같은 조건, 같은 페이지의 결과 id 는 도서가 바뀌기 전까지 재사용하고 엔티티는 2차 캐시에서 읽는다
+        BookQueryResultCache.Key key = page.isPaged() ? bookQueryResultCache.key(criteria, page) : null;
+        List<Long> cachedIds = key != null ? bookQueryResultCache.get(key) : null;
+        List<BookDTO> content;
+        if (cachedIds != null) {
+            content = findAllInOrder(cachedIds);
+        } else {
+            List<Book> books = findPage(specification, page);
+            if (key != null) {
+                List<Long> ids = new ArrayList<>(books.size());
+                for (Book book : books) {
+                    ids.add(book.getId());
+                }
+                bookQueryResultCache.put(key, ids);
+            }
+            content = bookMapper.toDto(books);
+        }
+        // 페이지 조회와 같은 비용이 드는 count 쿼리는 캐시에 없을 때만 실행
+        BookCountCache.Count total = bookCountCache.get(criteria, c -> bookRepository.count(specification));
+        return new EstimatedPage<>(content, page, total.getValue(), total.isExact());
+    }
+
+    private List<Book> findPage(Specification<Book> specification, Pageable page) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Book> query = builder.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        query.select(root).orderBy(QueryUtils.toOrders(page.getSort(), root, builder));
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        TypedQuery<Book> typedQuery = entityManager.createQuery(query);
+        if (page.isPaged()) {
+            typedQuery.setFirstResult((int) page.getOffset()).setMaxResults(page.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    /**
+     * Return a {@link Slice} of {@link BookDTO} which matches the criteria, positioned after {@code cursor}, without counting the total.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position of the last entity of the previous slice, and the sort order.
+     * @param size The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<BookDTO> findByCriteria(BookCriteria criteria, KeysetCursor cursor, int size) {
+        log.debug("find by criteria : {}, keyset: {} {} after {}", criteria, cursor.getProperty(), cursor.getDirection(), cursor.getId());
+        final Specification<Book> specification = createSpecification(criteria);
+        return KeysetQuery.findSlice(entityManager, Book.class, specification, cursor, size).map(bookMapper::toDto);
+    }
+
+    /**
+     * Search for the {@link BookDTO}s matching the query in title, author, publisher or description, most relevant first.
+     * @param query The query of the search.
+     * @param page The page, which should be returned; its sort is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<BookDTO> search(String query, Pageable page) {
+        log.debug("search for query : {}, page: {}", query, page);
+        Page<Long> ids = bookSearchIndex.search(query, page);
+        // 색인의 관련도 순서를 유지한다
+        return new PageImpl<>(findAllInOrder(ids.getContent()), page, ids.getTotalElements());
+    }
+
+    /**
+     * Search for the {@link BookDTO}s whose title or author terms are each within a few edits of a query term and which match the criteria,
+     * fewest edits first.
+     * @param query The query of the search.
+     * @param maxEdits The maximum number of edits per query term, from 0 to 2; shorter terms allow fewer edits.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned; its sort is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<BookDTO> findFuzzy(String query, int maxEdits, BookCriteria criteria, Pageable page) {
+        log.debug("fuzzy search for query : {} within {} edits, criteria: {}, page: {}", query, maxEdits, criteria, page);
+        List<Long> ids = bookFuzzyIndex.search(query, maxEdits, MAX_FUZZY_CANDIDATES);
+        if (criteria != null && !criteria.equals(new BookCriteria())) {
+            ids = filterIds(ids, createSpecification(criteria));
+        }
+        if (page.isUnpaged()) {
+            return new PageImpl<>(findAllInOrder(ids), page, ids.size());
+        }
+        int from = (int) Math.min(page.getOffset(), ids.size());
+        int to = Math.min(from + page.getPageSize(), ids.size());
+        return new PageImpl<>(findAllInOrder(ids.subList(from, to)), page, ids.size());
+    }
+
+    /**
+     * Keep the ids of {@code ids} whose entity matches the specification, in the same order.
+     */
+    private List<Long> filterIds(List<Long> ids, Specification<Book> specification) {
+        Set<Long> matching = new HashSet<>();
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            CriteriaQuery<Long> query = builder.createQuery(Long.class);
+            Root<Book> root = query.from(Book.class);
+            query.select(root.get(Book_.id));
+            Predicate predicate = specification.and((r, q, b) -> r.get(Book_.id).in(chunk)).toPredicate(root, query, builder);
+            query.where(predicate);
+            matching.addAll(entityManager.createQuery(query).getResultList());
+        }
+        List<Long> filtered = new ArrayList<>(matching.size());
+        for (Long id : ids) {
+            if (matching.contains(id)) {
+                filtered.add(id);
+            }
+        }
+        return filtered;
+    }
+
+    private List<BookDTO> findAllInOrder(List<Long> ids) {
+        Map<Long, Book> books = new HashMap<>();
+        // 2차 캐시에 있는 엔티티는 id 로 읽고, 나머지만 한 번의 in 쿼리로 읽는다
+        Cache secondLevelCache = entityManager.getEntityManagerFactory().getCache();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            if (secondLevelCache.contains(Book.class, id)) {
+                Book book = entityManager.find(Book.class, id);
+                if (book != null) {
+                    books.put(id, book);
+                }
+            } else {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Book book : bookRepository.findAllById(misses)) {
+                books.put(book.getId(), book);
+            }
+        }
+        List<BookDTO> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Book book = books.get(id);
+            if (book != null) {
+                content.add(bookMapper.toDto(book));
+            }
+        }
+        return content;
     }
 
     /**
@@ -74,6 +315,14 @@ public class BookQueryService extends QueryService<Book> {
         return bookRepository.count(specification);
     }
 
+    private Specification<Book> containsInfix(SearchNgram.FieldName fieldName, StringFilter filter) {
+        // 색인이 다 채워지기 전에는 색인에 없는 행이 빠지지 않도록 like 조건만 쓴다
+        if (filter.getContains() == null || !searchNgramIndexer.isComplete(SearchNgram.EntityType.BOOK)) {
+            return null;
+        }
+        return NgramSpecifications.containsInfix(SearchNgram.EntityType.BOOK, fieldName, filter.getContains());
+    }
+
     /**
      * Function to convert {@link BookCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -87,9 +336,12 @@ public class BookQueryService extends QueryService<Book> {
             }
             if (criteria.getTitle() != null) {
                 specification = specification.and(buildStringSpecification(criteria.getTitle(), Book_.title));
+                // 한글 부분 일치 검색은 n-gram 색인으로 후보를 좁힌 뒤 like 로 확인한다
+                specification = specification.and(containsInfix(SearchNgram.FieldName.TITLE, criteria.getTitle()));
             }
             if (criteria.getAuthor() != null) {
                 specification = specification.and(buildStringSpecification(criteria.getAuthor(), Book_.author));
+                specification = specification.and(containsInfix(SearchNgram.FieldName.AUTHOR, criteria.getAuthor()));
             }
             if (criteria.getDescription() != null) {
                 specification = specification.and(buildStringSpecification(criteria.getDescription(), Book_.description));
@@ -103,6 +355,15 @@ public class BookQueryService extends QueryService<Book> {
             if (criteria.getPublicationDate() != null) {
                 specification = specification.and(buildRangeSpecification(criteria.getPublicationDate(), Book_.publicationDate));
             }
+            if (criteria.getClassification() != null) {
+                specification = specification.and(buildSpecification(criteria.getClassification(), Book_.classification));
+            }
+            if (criteria.getBookStatus() != null) {
+                specification = specification.and(buildSpecification(criteria.getBookStatus(), Book_.bookStatus));
+            }
+            if (criteria.getLocation() != null) {
+                specification = specification.and(buildSpecification(criteria.getLocation(), Book_.location));
+            }
         }
         return specification;
     }
@@ -2,6 +2,10 @@ package com.my.book.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.my.book.domain.Book;
+import com.my.book.domain.event.StockChanged;
+import com.my.book.web.rest.dto.BookInfoDTO;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import org.springframework.data.domain.Page;
@@ -47,11 +51,23 @@ public interface BookService {
     // 컨슈머 어댑터가 호출한 비즈니스 로직 처리
     void processChangeBookState(Long bookId, String bookStatus);
 
-    // 재고 도서 정보 조회
-    Book findBookInfo(Long bookId);
+    // 컨슈머 어댑터가 poll 한 StockChanged 배치를 하나의 트랜잭션으로 처리
+    void processChangeBookStates(List<StockChanged> stockChangedList);
+
+    // 재고 도서 정보(id, 제목) 조회
+    Optional<BookInfoDTO> findBookInfo(Long bookId);
+
+    // 여러 재고 도서 정보(id, 제목)를 요청한 id 순서대로 조회 (없는 도서는 제외)
+    List<BookInfoDTO> findBookInfos(List<Long> bookIds);
+
+    // isbn 으로 도서 조회 (같은 isbn 의 도서가 여럿이면 id 가 가장 작은 도서)
+    Optional<Book> findByIsbn(Long isbn);
 
     // 재고 도서 등록
     Book registerNewBook(Book book, Long inStockId) throws InterruptedException, ExecutionException, JsonProcessingException;
 
+    // 여러 재고 도서를 한 트랜잭션에서 도서로 등록 (재고 도서 id -> 등록할 도서, 등록 순서대로 반환)
+    List<Book> registerNewBooks(Map<Long, Book> booksByInStockId) throws JsonProcessingException;
+
     void sendBookCatalogEvent(String eventType, Long bookId) throws InterruptedException, ExecutionException, JsonProcessingException;
 }
@@ -2,20 +2,34 @@ package com.my.book.service;
 
 import com.my.book.domain.InStockBook;
 import com.my.book.domain.InStockBook_;
+import com.my.book.domain.SearchNgram;
 import com.my.book.repository.InStockBookRepository;
 import com.my.book.service.criteria.BookCriteria;
 import com.my.book.service.criteria.InStockBookCriteria;
+import com.my.book.service.keyset.KeysetCursor;
+import com.my.book.service.keyset.KeysetQuery;
+import com.my.book.service.search.InStockBookSearchIndex;
+import com.my.book.service.search.NgramSpecifications;
+import com.my.book.service.search.SearchNgramIndexer;
 import com.my.book.web.rest.dto.InStockBookDTO;
 import com.my.book.web.rest.mapper.InStockBookMapper;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tech.jhipster.service.QueryService;
+import tech.jhipster.service.filter.StringFilter;
 
 /**
  * Service for executing complex queries for {@link InStockBook} entities in the database.
@@ -29,13 +43,31 @@ public class InStockBookQueryService extends QueryService<InStockBook> {
 
     private final Logger log = LoggerFactory.getLogger(InStockBookQueryService.class);
 
+    // 재고 도서는 제목이 비어있을 수 있어 id 순 keyset 페이지만 지원
+    public static final Set<String> KEYSET_SORT_PROPERTIES = Set.of(KeysetCursor.ID);
+
     private final InStockBookRepository inStockBookRepository;
 
     private final InStockBookMapper inStockBookMapper;
 
-    public InStockBookQueryService(InStockBookRepository inStockBookRepository, InStockBookMapper inStockBookMapper) {
+    private final EntityManager entityManager;
+
+    private final InStockBookSearchIndex inStockBookSearchIndex;
+
+    private final SearchNgramIndexer searchNgramIndexer;
+
+    public InStockBookQueryService(
+        InStockBookRepository inStockBookRepository,
+        InStockBookMapper inStockBookMapper,
+        EntityManager entityManager,
+        InStockBookSearchIndex inStockBookSearchIndex,
+        SearchNgramIndexer searchNgramIndexer
+    ) {
         this.inStockBookRepository = inStockBookRepository;
         this.inStockBookMapper = inStockBookMapper;
+        this.entityManager = entityManager;
+        this.inStockBookSearchIndex = inStockBookSearchIndex;
+        this.searchNgramIndexer = searchNgramIndexer;
     }
 
     /**
@@ -63,6 +95,45 @@ public class InStockBookQueryService extends QueryService<InStockBook> {
         return inStockBookRepository.findAll(specification, page).map(inStockBookMapper::toDto);
     }
 
+    /**
+     * Return a {@link Slice} of {@link InStockBookDTO} which matches the criteria, positioned after {@code cursor}, without counting the total.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param cursor The position of the last entity of the previous slice, and the sort order.
+     * @param size The maximum number of entities to return.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Slice<InStockBookDTO> findByCriteria(InStockBookCriteria criteria, KeysetCursor cursor, int size) {
+        log.debug("find by criteria : {}, keyset: {} {} after {}", criteria, cursor.getProperty(), cursor.getDirection(), cursor.getId());
+        final Specification<InStockBook> specification = createSpecification(criteria);
+        return KeysetQuery.findSlice(entityManager, InStockBook.class, specification, cursor, size).map(inStockBookMapper::toDto);
+    }
+
+    /**
+     * Search for the {@link InStockBookDTO}s matching the query in title, author, publisher or description, most relevant first.
+     * @param query The query of the search.
+     * @param page The page, which should be returned; its sort is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<InStockBookDTO> search(String query, Pageable page) {
+        log.debug("search for query : {}, page: {}", query, page);
+        Page<Long> ids = inStockBookSearchIndex.search(query, page);
+        Map<Long, InStockBook> inStockBooks = new HashMap<>();
+        for (InStockBook inStockBook : inStockBookRepository.findAllById(ids.getContent())) {
+            inStockBooks.put(inStockBook.getId(), inStockBook);
+        }
+        // 색인의 관련도 순서를 유지한다
+        List<InStockBookDTO> content = new ArrayList<>(ids.getNumberOfElements());
+        for (Long id : ids) {
+            InStockBook inStockBook = inStockBooks.get(id);
+            if (inStockBook != null) {
+                content.add(inStockBookMapper.toDto(inStockBook));
+            }
+        }
+        return new PageImpl<>(content, page, ids.getTotalElements());
+    }
+
     /**
      * Return the number of matching entities in the database.
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -75,6 +146,14 @@ public class InStockBookQueryService extends QueryService<InStockBook> {
         return inStockBookRepository.count(specification);
     }
 
+    private Specification<InStockBook> containsInfix(SearchNgram.FieldName fieldName, StringFilter filter) {
+        // 색인이 다 채워지기 전에는 색인에 없는 행이 빠지지 않도록 like 조건만 쓴다
+        if (filter.getContains() == null || !searchNgramIndexer.isComplete(SearchNgram.EntityType.IN_STOCK_BOOK)) {
+            return null;
+        }
+        return NgramSpecifications.containsInfix(SearchNgram.EntityType.IN_STOCK_BOOK, fieldName, filter.getContains());
+    }
+
     /**
      * Function to convert {@link InStockBookCriteria} to a {@link Specification}
      * @param criteria The object which holds all the filters, which the entities should match.
@@ -88,9 +167,12 @@ public class InStockBookQueryService extends QueryService<InStockBook> {
             }
             if (criteria.getTitle() != null) {
                 specification = specification.and(buildStringSpecification(criteria.getTitle(), InStockBook_.title));
+                // 한글 부분 일치 검색은 n-gram 색인으로 후보를 좁힌 뒤 like 로 확인한다
+                specification = specification.and(containsInfix(SearchNgram.FieldName.TITLE, criteria.getTitle()));
             }
             if (criteria.getAuthor() != null) {
                 specification = specification.and(buildStringSpecification(criteria.getAuthor(), InStockBook_.author));
+                specification = specification.and(containsInfix(SearchNgram.FieldName.AUTHOR, criteria.getAuthor()));
             }
             if (criteria.getDescription() != null) {
                 specification = specification.and(buildStringSpecification(criteria.getDescription(), InStockBook_.description));
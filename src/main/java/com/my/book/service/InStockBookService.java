@@ -2,6 +2,8 @@ package com.my.book.service;
 
 import com.my.book.domain.InStockBook;
 import com.my.book.web.rest.dto.InStockBookDTO;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,6 +20,14 @@ public interface InStockBookService {
      */
     InStockBook save(InStockBook inStockBook);
 
+    /**
+     * Save new inStockBooks in one transaction, inserted in JDBC batches.
+     *
+     * @param inStockBooks the entities to save.
+     * @return the persisted entities.
+     */
+    List<InStockBook> saveAll(List<InStockBook> inStockBooks);
+
     /**
      * Get all the inStockBooks.
      *
@@ -41,5 +51,13 @@ public interface InStockBookService {
      */
     void delete(Long id);
 
+    /**
+     * Delete the inStockBooks of the "ids" with bulk deletes.
+     *
+     * @param ids the ids of the entities.
+     * @return the number of deleted entities.
+     */
+    int deleteAll(Collection<Long> ids);
+
     Page<InStockBookDTO> findByTitle(String title, Pageable pageable);
 }
@@ -0,0 +1,100 @@
+package com.my.book.service.cache;
+
+import com.my.book.config.ApplicationProperties;
+import com.my.book.repository.BookRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Counts book lookups and periodically persists the most accessed books, so that {@link CacheWarmUp} knows what to preload after a restart.
+ * <p>
+ * Counts are halved after each snapshot so that books which stopped being read fall out of it.
+ */
+@Component
+public class BookAccessTracker {
+
+    private final Logger log = LoggerFactory.getLogger(BookAccessTracker.class);
+
+    private final ConcurrentHashMap<Long, LongAdder> counts = new ConcurrentHashMap<>();
+
+    private final BookRepository bookRepository;
+
+    private final int snapshotSize;
+
+    public BookAccessTracker(BookRepository bookRepository, ApplicationProperties applicationProperties) {
+        this.bookRepository = bookRepository;
+        this.snapshotSize = applicationProperties.getWarmUp().getSize();
+    }
+
+    public void record(Long bookId) {
+        if (bookId != null) {
+            counts.computeIfAbsent(bookId, id -> new LongAdder()).increment();
+        }
+    }
+
+    public void record(Iterable<Long> bookIds) {
+        bookIds.forEach(this::record);
+    }
+
+    @Scheduled(initialDelay = 300_000, fixedDelay = 300_000)
+    @Transactional
+    public void saveSnapshot() {
+        Map<Long, Long> mostAccessed = mostAccessed(snapshotSize);
+        if (mostAccessed.isEmpty()) {
+            return;
+        }
+        // 인스턴스마다 마지막으로 저장한 스냅샷이 남는다 (부하가 고르게 분산되므로 충분히 대표적)
+        bookRepository.replaceAccessSnapshot(mostAccessed);
+        decay();
+        log.debug("Saved access snapshot of {} books", mostAccessed.size());
+    }
+
+    /**
+     * The {@code limit} most accessed books with their access counts, most accessed first.
+     */
+    Map<Long, Long> mostAccessed(int limit) {
+        Comparator<Map.Entry<Long, Long>> byCount = Map.Entry.comparingByValue();
+        // 상위 limit 개만 유지하는 최소 힙
+        PriorityQueue<Map.Entry<Long, Long>> top = new PriorityQueue<>(byCount.thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+        counts.forEach(
+            (bookId, count) -> {
+                top.add(Map.entry(bookId, count.sum()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        );
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(top);
+        entries.sort(byCount.reversed().thenComparing(Map.Entry.comparingByKey()));
+        Map<Long, Long> result = new LinkedHashMap<>();
+        entries.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+
+    /**
+     * Halve every count, dropping books that reach zero.
+     */
+    void decay() {
+        counts
+            .entrySet()
+            .removeIf(
+                entry -> {
+                    LongAdder count = entry.getValue();
+                    long sum = count.sumThenReset();
+                    count.add(sum / 2);
+                    return sum / 2 == 0;
+                }
+            );
+    }
+}
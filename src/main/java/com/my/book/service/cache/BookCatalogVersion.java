@@ -0,0 +1,85 @@
+package com.my.book.service.cache;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.my.book.service.event.BookEntityEvent;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version of the book catalog, bumped once per committed transaction that changed books, on this instance and,
+ * through a Hazelcast topic, on the others.
+ * <p>
+ * Caches stamp their entries with the version they were computed at, so that an entry computed before a change is not served as current.
+ */
+@Component
+public class BookCatalogVersion {
+
+    private static final String CATALOG_VERSION_TOPIC = "book-catalog-version";
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private ITopic<Long> catalogVersionTopic;
+
+    public BookCatalogVersion(HazelcastInstance hazelcastInstance) {
+        this.hazelcastInstance = hazelcastInstance;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        catalogVersionTopic = hazelcastInstance.getTopic(CATALOG_VERSION_TOPIC);
+        catalogVersionTopic.addMessageListener(this::onMessage);
+    }
+
+    public long get() {
+        return version.get();
+    }
+
+    @EventListener
+    public void onBookEntityEvent(BookEntityEvent event) {
+        // 재고 상태 변경도 상태 조건의 결과를 바꾸므로 모든 변경에서 버전을 올린다
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+            return;
+        }
+        // 한 트랜잭션에서 여러 도서를 바꿔도 커밋 후 한 번만 올리고 알린다
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(BookCatalogVersion.this);
+                }
+            }
+        );
+    }
+
+    void onMessage(Message<Long> message) {
+        // 이 인스턴스가 보낸 메시지는 커밋 직후에 이미 반영했다
+        if (!message.getPublishingMember().localMember()) {
+            version.incrementAndGet();
+        }
+    }
+
+    private void bump() {
+        version.incrementAndGet();
+        if (catalogVersionTopic != null) {
+            catalogVersionTopic.publish(version.get());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.my.book.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.my.book.config.ApplicationProperties;
+import com.my.book.service.criteria.BookCriteria;
+import com.my.book.service.event.BookEntityEvent;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Local cache of the number of books matching a {@link BookCriteria}, used for the {@code X-Total-Count} of paginated listings.
+ * <p>
+ * A count is exact only while the {@link BookCatalogVersion} it was taken at is current: any book change committed on this instance
+ * or another one, including while counting, makes it an estimate until it expires and is counted again.
+ * The unfiltered total is still adjusted on local creates and deletes to keep the estimate close.
+ */
+@Component
+public class BookCountCache {
+
+    private static final BookCriteria UNFILTERED = new BookCriteria();
+
+    private final Cache<BookCriteria, Entry> cache;
+
+    private final BookCatalogVersion bookCatalogVersion;
+
+    public BookCountCache(ApplicationProperties applicationProperties, BookCatalogVersion bookCatalogVersion) {
+        ApplicationProperties.LocalCache properties = applicationProperties.getBookCountCache();
+        this.cache = Caffeine
+            .newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getTimeToLive())
+            .recordStats()
+            .build();
+        this.bookCatalogVersion = bookCatalogVersion;
+    }
+
+    /**
+     * Get the cached count of books matching {@code criteria}, counting them with {@code counter} on a miss.
+     */
+    public Count get(BookCriteria criteria, Function<BookCriteria, Long> counter) {
+        // 호출자가 조건을 바꿔도 키가 바뀌지 않도록 복사본을 키로 쓴다
+        BookCriteria key = criteria == null ? UNFILTERED : criteria.copy();
+        Entry entry = cache.get(
+            key,
+            k -> {
+                // 세기 전의 버전을 기록해, 세는 동안 커밋된 변경이 있으면 추정치가 되게 한다
+                long catalogVersion = bookCatalogVersion.get();
+                return new Entry(counter.apply(k), catalogVersion);
+            }
+        );
+        return new Count(entry.value.get(), entry.catalogVersion == bookCatalogVersion.get());
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    Cache<?, ?> nativeCache() {
+        return cache;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookEntityEvent(BookEntityEvent event) {
+        switch (event.getAction()) {
+            case CREATED:
+                adjust(1);
+                break;
+            case DELETED:
+                adjust(-1);
+                break;
+            default:
+                // 필터 조건의 결과는 조건을 평가해야 알 수 있으므로 버전 변경으로 추정치가 되는 것으로 충분하다
+        }
+    }
+
+    private void adjust(long delta) {
+        // 항목을 교체하지 않고 값만 바꿔서 만료 시각은 처음 센 시각 기준으로 유지한다
+        // 적중률 통계에 잡히지 않도록 맵으로 읽는다
+        Entry unfiltered = cache.asMap().get(UNFILTERED);
+        if (unfiltered != null) {
+            unfiltered.value.addAndGet(delta);
+        }
+    }
+
+    private static final class Entry {
+
+        private final AtomicLong value;
+        private final long catalogVersion;
+
+        private Entry(long value, long catalogVersion) {
+            this.value = new AtomicLong(value);
+            this.catalogVersion = catalogVersion;
+        }
+    }
+
+    /**
+     * A cached count, and whether it still matches the database.
+     */
+    public static class Count {
+
+        private final long value;
+        private final boolean exact;
+
+        Count(long value, boolean exact) {
+            this.value = value;
+            this.exact = exact;
+        }
+
+        public long getValue() {
+            return Math.max(0, value);
+        }
+
+        public boolean isExact() {
+            return exact;
+        }
+    }
+}
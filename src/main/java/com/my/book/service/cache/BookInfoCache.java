@@ -0,0 +1,91 @@
+package com.my.book.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.my.book.config.ApplicationProperties;
+import com.my.book.service.event.BookEntityEvent;
+import com.my.book.service.event.RemoteBookChangeEvent;
+import com.my.book.web.rest.dto.BookInfoDTO;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Local cache of {@code id -> BookInfoDTO} serving the rental service's bookInfo lookups from memory.
+ * <p>
+ * Entries are invalidated after a book update or delete commits, and on {@link RemoteBookChangeEvent}s for the changes committed
+ * on other instances; the TTL bounds staleness should a broadcast be missed.
+ */
+@Component
+public class BookInfoCache {
+
+    private final Logger log = LoggerFactory.getLogger(BookInfoCache.class);
+
+    private final Cache<Long, BookInfoDTO> cache;
+
+    public BookInfoCache(ApplicationProperties applicationProperties) {
+        ApplicationProperties.LocalCache properties = applicationProperties.getBookInfoCache();
+        this.cache = Caffeine
+            .newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getTimeToLive())
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Get the cached book info, loading it with {@code loader} on a miss. Missing books are not cached.
+     *
+     * @param bookId the id of the book.
+     * @param loader loads the book info, or returns {@code null} if the book does not exist.
+     * @return the book info, if any.
+     */
+    public Optional<BookInfoDTO> get(Long bookId, Function<Long, BookInfoDTO> loader) {
+        // 같은 키를 동시에 조회하면 한 번만 로드하고, 로드 중인 키의 무효화는 로드가 끝날 때까지 기다린다
+        return Optional.ofNullable(cache.get(bookId, loader));
+    }
+
+    /**
+     * Get the cached book infos, loading all misses with a single call to {@code loader}. Missing books are not cached.
+     *
+     * @param bookIds the ids of the books.
+     * @param loader loads the book infos of the given ids, omitting books that do not exist.
+     * @return the book infos found, by id.
+     */
+    public Map<Long, BookInfoDTO> getAll(Collection<Long> bookIds, Function<Iterable<? extends Long>, Map<Long, BookInfoDTO>> loader) {
+        return cache.getAll(bookIds, loader);
+    }
+
+    public void evict(Long bookId) {
+        cache.invalidate(bookId);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    Cache<?, ?> nativeCache() {
+        return cache;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookEntityEvent(BookEntityEvent event) {
+        // 재고 상태 변경은 제목에 영향이 없으므로 수정, 삭제만 무효화
+        if (event.getAction() == BookEntityEvent.Action.UPDATED || event.getAction() == BookEntityEvent.Action.DELETED) {
+            log.debug("Evicting book info of book {}", event.getBookId());
+            evict(event.getBookId());
+        }
+    }
+
+    @EventListener
+    public void onRemoteBookChangeEvent(RemoteBookChangeEvent event) {
+        log.debug("Evicting book info of books {} changed on another instance", event.getBookIds());
+        cache.invalidateAll(event.getBookIds());
+    }
+}
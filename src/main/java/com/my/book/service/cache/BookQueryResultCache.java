@@ -0,0 +1,97 @@
+package com.my.book.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.my.book.config.ApplicationProperties;
+import com.my.book.service.criteria.BookCriteria;
+import java.util.List;
+import java.util.Objects;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local cache of the ids of the books on a page of a {@link BookCriteria} listing.
+ * <p>
+ * Keys include the {@link BookCatalogVersion}: an entry is never read again once any book changed after it was queried,
+ * and unused entries age out.
+ */
+@Component
+public class BookQueryResultCache {
+
+    private static final BookCriteria UNFILTERED = new BookCriteria();
+
+    private final Cache<Key, List<Long>> cache;
+
+    private final BookCatalogVersion bookCatalogVersion;
+
+    public BookQueryResultCache(ApplicationProperties applicationProperties, BookCatalogVersion bookCatalogVersion) {
+        ApplicationProperties.LocalCache properties = applicationProperties.getBookQueryCache();
+        this.cache = Caffeine
+            .newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getTimeToLive())
+            .recordStats()
+            .build();
+        this.bookCatalogVersion = bookCatalogVersion;
+    }
+
+    /**
+     * The key of the page of {@code criteria} at the current catalog version; take it before running the query it caches.
+     */
+    public Key key(BookCriteria criteria, Pageable page) {
+        // 호출자가 조건을 바꿔도 키가 바뀌지 않도록 복사본을 키로 쓴다
+        return new Key(criteria == null ? UNFILTERED : criteria.copy(), page, bookCatalogVersion.get());
+    }
+
+    /**
+     * The cached ids of {@code key}, or {@code null}.
+     */
+    public List<Long> get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(Key key, List<Long> ids) {
+        cache.put(key, List.copyOf(ids));
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    Cache<?, ?> nativeCache() {
+        return cache;
+    }
+
+    /**
+     * A page of a listing at a catalog version.
+     */
+    public static final class Key {
+
+        private final BookCriteria criteria;
+        private final Pageable page;
+        private final long catalogVersion;
+
+        private Key(BookCriteria criteria, Pageable page, long catalogVersion) {
+            this.criteria = criteria;
+            this.page = page;
+            this.catalogVersion = catalogVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return catalogVersion == key.catalogVersion && criteria.equals(key.criteria) && page.equals(key.page);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(criteria, page, catalogVersion);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.my.book.service.cache;
+
+import com.hazelcast.core.DistributedObject;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import io.micrometer.core.instrument.Tag;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes the statistics of the Hibernate second level cache regions to Micrometer.
+ * <p>
+ * Regions are Hazelcast maps created by Hibernate, unknown to Spring when the cache metrics are bound at startup:
+ * they are registered with the {@link CacheManager} so that they also show in the {@code caches} endpoint.
+ * They are tagged like the caches bound at startup, which include the local caches listed by {@link LocalCacheManager}.
+ */
+@Component
+public class CacheMetricsBinder {
+
+    static final Tag CACHE_MANAGER_TAG = Tag.of("cacheManager", "cacheManager");
+
+    private final Logger log = LoggerFactory.getLogger(CacheMetricsBinder.class);
+
+    private final CacheMetricsRegistrar cacheMetricsRegistrar;
+
+    private final CacheManager cacheManager;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final HazelcastInstance hazelcastInstance;
+
+    public CacheMetricsBinder(
+        CacheMetricsRegistrar cacheMetricsRegistrar,
+        CacheManager cacheManager,
+        EntityManagerFactory entityManagerFactory,
+        HazelcastInstance hazelcastInstance
+    ) {
+        this.cacheMetricsRegistrar = cacheMetricsRegistrar;
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.hazelcastInstance = hazelcastInstance;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void bindCaches() {
+        Set<String> maps = hazelcastInstance
+            .getDistributedObjects()
+            .stream()
+            .filter(IMap.class::isInstance)
+            .map(DistributedObject::getName)
+            .collect(Collectors.toSet());
+        // 쿼리 캐시처럼 Hazelcast 맵이 아닌 영역은 제외 (getCache 가 빈 맵을 새로 만들지 않도록)
+        for (String regionName : entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().getCacheRegionNames()) {
+            if (!maps.contains(regionName)) {
+                continue;
+            }
+            Cache cache = cacheManager.getCache(regionName);
+            if (cache != null && cacheMetricsRegistrar.bindCacheToRegistry(cache, CACHE_MANAGER_TAG)) {
+                log.debug("Bound metrics of second level cache region {}", regionName);
+            }
+        }
+    }
+}
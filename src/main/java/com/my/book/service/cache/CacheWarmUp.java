@@ -0,0 +1,112 @@
+package com.my.book.service.cache;
+
+import com.my.book.config.ApplicationProperties;
+import com.my.book.domain.Book;
+import com.my.book.repository.BookRepository;
+import com.my.book.web.rest.dto.BookInfoDTO;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preloads the most accessed books into the second level cache and {@link BookInfoCache} once the application is ready.
+ * <p>
+ * Reported as {@code OUT_OF_SERVICE} in the readiness group until the warm-up completes or times out.
+ * Book ids come from the snapshot saved by {@link BookAccessTracker}, or are the latest books when there is none yet.
+ */
+@Component("cacheWarmUp")
+public class CacheWarmUp implements HealthIndicator {
+
+    private final Logger log = LoggerFactory.getLogger(CacheWarmUp.class);
+
+    private final BookRepository bookRepository;
+
+    private final BookInfoCache bookInfoCache;
+
+    private final ApplicationProperties.WarmUp properties;
+
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final AtomicInteger loaded = new AtomicInteger();
+
+    private volatile boolean done;
+
+    public CacheWarmUp(BookRepository bookRepository, BookInfoCache bookInfoCache, ApplicationProperties applicationProperties) {
+        this.bookRepository = bookRepository;
+        this.bookInfoCache = bookInfoCache;
+        this.properties = applicationProperties.getWarmUp();
+        this.done = !properties.isEnabled();
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (done) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism());
+        try {
+            List<Long> ids = bookRepository.findMostAccessedBookIds(properties.getSize());
+            if (ids.isEmpty()) {
+                ids = bookRepository.findLatestIds(PageRequest.of(0, properties.getSize()));
+            }
+            total.set(ids.size());
+            log.info("Warming up caches with {} books", ids.size());
+
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += properties.getBatchSize()) {
+                List<Long> batch = ids.subList(from, Math.min(from + properties.getBatchSize(), ids.size()));
+                batches.add(CompletableFuture.runAsync(() -> loadBatch(batch), executor));
+            }
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            log.info("Warmed up caches with {} books in {} ms", loaded.get(), System.currentTimeMillis() - start);
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up timed out after {} of {} books", loaded.get(), total.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // 워밍업 실패로 서비스가 준비되지 않은 상태로 남으면 안 된다
+            log.warn("Cache warm-up failed after {} of {} books", loaded.get(), total.get(), e);
+        } finally {
+            executor.shutdownNow();
+            done = true;
+        }
+    }
+
+    private void loadBatch(List<Long> batch) {
+        // 엔티티 조회로 2차 캐시를, id, 제목 projection 조회로 도서 정보 캐시를 채운다
+        List<Book> books = bookRepository.findAllById(batch);
+        bookInfoCache.getAll(
+            batch,
+            ids -> {
+                Map<Long, BookInfoDTO> bookInfos = new HashMap<>(books.size() * 2);
+                books.forEach(book -> bookInfos.put(book.getId(), new BookInfoDTO(book.getId(), book.getTitle())));
+                return bookInfos;
+            }
+        );
+        loaded.addAndGet(books.size());
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = done ? Health.up() : Health.outOfService();
+        return builder.withDetail("loaded", loaded.get()).withDetail("total", total.get()).build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.my.book.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.util.List;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the local Caffeine caches as Spring caches, so that they show in the {@code caches} endpoint and their statistics are
+ * published by the cache metrics auto-configuration like those of the other caches (tagged {@code cacheManager=local}).
+ * <p>
+ * The caches are used through their own classes: this manager only lists them.
+ */
+@Component
+public class LocalCacheManager extends SimpleCacheManager {
+
+    public LocalCacheManager(BookInfoCache bookInfoCache, BookCountCache bookCountCache, BookQueryResultCache bookQueryResultCache) {
+        setCaches(
+            List.of(
+                caffeineCache("bookInfo", bookInfoCache.nativeCache()),
+                caffeineCache("bookCount", bookCountCache.nativeCache()),
+                caffeineCache("bookQueryResult", bookQueryResultCache.nativeCache())
+            )
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CaffeineCache caffeineCache(String name, Cache<?, ?> cache) {
+        return new CaffeineCache(name, (Cache<Object, Object>) cache, false);
+    }
+}
@@ -1,5 +1,8 @@
 package com.my.book.service.criteria;
 
+import com.my.book.domain.enumeration.BookStatus;
+import com.my.book.domain.enumeration.Classification;
+import com.my.book.domain.enumeration.Location;
 import java.io.Serializable;
 import java.util.Objects;
 import lombok.Getter;
@@ -24,6 +27,57 @@ import tech.jhipster.service.filter.*;
 @NoArgsConstructor
 public class BookCriteria implements Serializable, Criteria {
 
+    /**
+     * Class for filtering Classification
+     */
+    public static class ClassificationFilter extends Filter<Classification> {
+
+        public ClassificationFilter() {}
+
+        public ClassificationFilter(ClassificationFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public ClassificationFilter copy() {
+            return new ClassificationFilter(this);
+        }
+    }
+
+    /**
+     * Class for filtering BookStatus
+     */
+    public static class BookStatusFilter extends Filter<BookStatus> {
+
+        public BookStatusFilter() {}
+
+        public BookStatusFilter(BookStatusFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public BookStatusFilter copy() {
+            return new BookStatusFilter(this);
+        }
+    }
+
+    /**
+     * Class for filtering Location
+     */
+    public static class LocationFilter extends Filter<Location> {
+
+        public LocationFilter() {}
+
+        public LocationFilter(LocationFilter filter) {
+            super(filter);
+        }
+
+        @Override
+        public LocationFilter copy() {
+            return new LocationFilter(this);
+        }
+    }
+
     private static final long serialVersionUID = 1L;
 
     private LongFilter id;
@@ -33,6 +87,9 @@ public class BookCriteria implements Serializable, Criteria {
     private StringFilter publisher;
     private LongFilter isbn;
     private LocalDateFilter publicationDate;
+    private ClassificationFilter classification;
+    private BookStatusFilter bookStatus;
+    private LocationFilter location;
 
     public BookCriteria(BookCriteria other) {
         this.id = other.id == null ? null : other.id.copy();
@@ -42,6 +99,9 @@ public class BookCriteria implements Serializable, Criteria {
         this.publisher = other.publisher == null ? null : other.publisher.copy();
         this.isbn = other.isbn == null ? null : other.isbn.copy();
         this.publicationDate = other.publicationDate == null ? null : other.publicationDate.copy();
+        this.classification = other.classification == null ? null : other.classification.copy();
+        this.bookStatus = other.bookStatus == null ? null : other.bookStatus.copy();
+        this.location = other.location == null ? null : other.location.copy();
     }
 
     @Override
@@ -98,6 +158,27 @@ public class BookCriteria implements Serializable, Criteria {
         return publicationDate;
     }
 
+    public ClassificationFilter classification() {
+        if (classification == null) {
+            classification = new ClassificationFilter();
+        }
+        return classification;
+    }
+
+    public BookStatusFilter bookStatus() {
+        if (bookStatus == null) {
+            bookStatus = new BookStatusFilter();
+        }
+        return bookStatus;
+    }
+
+    public LocationFilter location() {
+        if (location == null) {
+            location = new LocationFilter();
+        }
+        return location;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -114,13 +195,16 @@ public class BookCriteria implements Serializable, Criteria {
             Objects.equals(description, that.description) &&
             Objects.equals(publisher, that.publisher) &&
             Objects.equals(isbn, that.isbn) &&
-            Objects.equals(publicationDate, that.publicationDate)
+            Objects.equals(publicationDate, that.publicationDate) &&
+            Objects.equals(classification, that.classification) &&
+            Objects.equals(bookStatus, that.bookStatus) &&
+            Objects.equals(location, that.location)
         );
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, author, description, publisher, isbn, publicationDate);
+        return Objects.hash(id, title, author, description, publisher, isbn, publicationDate, classification, bookStatus, location);
     }
 
     // prettier-ignore
@@ -134,6 +218,9 @@ public class BookCriteria implements Serializable, Criteria {
             (publisher != null ? "publisher=" + publisher + ", " : "") +
             (isbn != null ? "isbn=" + isbn + ", " : "") +
             (publicationDate != null ? "publicationDate=" + publicationDate + ", " : "") +
+            (classification != null ? "classification=" + classification + ", " : "") +
+            (bookStatus != null ? "bookStatus=" + bookStatus + ", " : "") +
+            (location != null ? "location=" + location + ", " : "") +
             "}";
     }
 }
@@ -0,0 +1,41 @@
+package com.my.book.service.event;
+
+import com.my.book.domain.Book;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published by the book service whenever a {@link com.my.book.domain.Book} is created, updated or deleted.
+ * Listeners that keep derived state (caches, indexes) in sync should use {@code @TransactionalEventListener}.
+ */
+@Getter
+@ToString
+public class BookEntityEvent {
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED,
+        // 대출/반납으로 재고 상태(bookStatus)만 바뀐 경우
+        STATUS_CHANGED,
+    }
+
+    private final Action action;
+    private final Long bookId;
+
+    // 생성, 수정 시 저장된 엔티티 (삭제, 상태 변경 시에는 null)
+    @ToString.Exclude
+    private final Book book;
+
+    public BookEntityEvent(Action action, Long bookId) {
+        this.action = action;
+        this.bookId = bookId;
+        this.book = null;
+    }
+
+    public BookEntityEvent(Action action, Book book) {
+        this.action = action;
+        this.bookId = book.getId();
+        this.book = book;
+    }
+}
@@ -0,0 +1,125 @@
+package com.my.book.service.event;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Broadcasts the ids of the books and in-stock books changed by each committed transaction to the other instances,
+ * where they are published as {@link RemoteBookChangeEvent}s and {@link RemoteInStockBookChangeEvent}s.
+ * <p>
+ * Lets the in-memory indexes of every instance follow changes made anywhere in the cluster.
+ */
+@Component
+public class EntityChangeBroadcaster {
+
+    private final HazelcastInstance hazelcastInstance;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final Channel books = new Channel("book-changes", RemoteBookChangeEvent::new);
+
+    private final Channel inStockBooks = new Channel("in-stock-book-changes", RemoteInStockBookChangeEvent::new);
+
+    public EntityChangeBroadcaster(HazelcastInstance hazelcastInstance, ApplicationEventPublisher applicationEventPublisher) {
+        this.hazelcastInstance = hazelcastInstance;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        books.subscribe();
+        inStockBooks.subscribe();
+    }
+
+    @EventListener
+    public void onBookEntityEvent(BookEntityEvent event) {
+        // 재고 상태 변경은 색인 대상 필드와 무관하므로 알리지 않는다
+        if (event.getAction() != BookEntityEvent.Action.STATUS_CHANGED) {
+            books.changed(event.getBookId());
+        }
+    }
+
+    @EventListener
+    public void onInStockBookEntityEvent(InStockBookEntityEvent event) {
+        inStockBooks.changed(event.getInStockBookId());
+    }
+
+    /**
+     * A topic of changed ids; also the key of the ids collected in the current transaction.
+     */
+    private final class Channel {
+
+        private final String name;
+
+        private final Function<Set<Long>, Object> remoteEvent;
+
+        private ITopic<long[]> topic;
+
+        private Channel(String name, Function<Set<Long>, Object> remoteEvent) {
+            this.name = name;
+            this.remoteEvent = remoteEvent;
+        }
+
+        private void subscribe() {
+            topic = hazelcastInstance.getTopic(name);
+            topic.addMessageListener(this::onMessage);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void changed(Long id) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                publish(Collections.singleton(id));
+                return;
+            }
+            // 트랜잭션에서 바뀐 id 를 모아 커밋 후 한 번에 알린다
+            Set<Long> ids = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+            if (ids == null) {
+                Set<Long> collected = new LinkedHashSet<>();
+                TransactionSynchronizationManager.bindResource(this, collected);
+                TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            publish(collected);
+                        }
+
+                        @Override
+                        public void afterCompletion(int status) {
+                            TransactionSynchronizationManager.unbindResourceIfPossible(Channel.this);
+                        }
+                    }
+                );
+                ids = collected;
+            }
+            ids.add(id);
+        }
+
+        private void publish(Set<Long> ids) {
+            if (topic != null) {
+                topic.publish(ids.stream().mapToLong(Long::longValue).toArray());
+            }
+        }
+
+        private void onMessage(Message<long[]> message) {
+            // 이 인스턴스의 변경은 커밋 후 엔티티 이벤트로 이미 반영했다
+            if (message.getPublishingMember().localMember()) {
+                return;
+            }
+            Set<Long> ids = Arrays.stream(message.getMessageObject()).boxed().collect(Collectors.toCollection(LinkedHashSet::new));
+            applicationEventPublisher.publishEvent(remoteEvent.apply(ids));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.my.book.service.event;
+
+import com.my.book.domain.InStockBook;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published by the in-stock book service whenever a {@link InStockBook} is created, updated or deleted.
+ */
+@Getter
+@ToString
+public class InStockBookEntityEvent {
+
+    public enum Action {
+        SAVED,
+        DELETED,
+    }
+
+    private final Action action;
+    private final Long inStockBookId;
+
+    // 저장 시 저장된 엔티티 (삭제 시에는 null)
+    @ToString.Exclude
+    private final InStockBook inStockBook;
+
+    public InStockBookEntityEvent(Action action, Long inStockBookId) {
+        this.action = action;
+        this.inStockBookId = inStockBookId;
+        this.inStockBook = null;
+    }
+
+    public InStockBookEntityEvent(Action action, InStockBook inStockBook) {
+        this.action = action;
+        this.inStockBookId = inStockBook.getId();
+        this.inStockBook = inStockBook;
+    }
+}
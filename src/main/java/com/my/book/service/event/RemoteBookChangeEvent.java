@@ -0,0 +1,22 @@
+package com.my.book.service.event;
+
+import com.my.book.domain.Book;
+import java.util.Set;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published when another instance committed the creation, update or deletion of {@link Book}s.
+ * <p>
+ * Only the ids are known: listeners read the current state of the books from the database.
+ */
+@Getter
+@ToString
+public class RemoteBookChangeEvent {
+
+    private final Set<Long> bookIds;
+
+    public RemoteBookChangeEvent(Set<Long> bookIds) {
+        this.bookIds = bookIds;
+    }
+}
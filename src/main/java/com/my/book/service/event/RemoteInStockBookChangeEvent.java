@@ -0,0 +1,22 @@
+package com.my.book.service.event;
+
+import com.my.book.domain.InStockBook;
+import java.util.Set;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published when another instance committed the creation, update or deletion of {@link InStockBook}s.
+ * <p>
+ * Only the ids are known: listeners read the current state of the in-stock books from the database.
+ */
+@Getter
+@ToString
+public class RemoteInStockBookChangeEvent {
+
+    private final Set<Long> inStockBookIds;
+
+    public RemoteInStockBookChangeEvent(Set<Long> inStockBookIds) {
+        this.inStockBookIds = inStockBookIds;
+    }
+}
@@ -1,22 +1,41 @@
 package com.my.book.service.impl;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.my.book.adaptor.BookProducer;
+import com.my.book.adaptor.BookEventCodec;
 import com.my.book.domain.Book;
+import com.my.book.domain.BookOutbox;
 import com.my.book.domain.enumeration.BookStatus;
 import com.my.book.domain.event.BookChanged;
+import com.my.book.domain.event.StockChanged;
+import com.my.book.repository.BookOutboxRepository;
 import com.my.book.repository.BookRepository;
 import com.my.book.service.BookService;
 import com.my.book.service.InStockBookService;
+import com.my.book.service.cache.BookAccessTracker;
+import com.my.book.service.cache.BookInfoCache;
+import com.my.book.service.event.BookEntityEvent;
+import com.my.book.service.search.BookIsbnIndex;
+import com.my.book.web.rest.dto.BookInfoDTO;
 import com.my.book.web.rest.mapper.BookMapper;
+import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -30,27 +49,47 @@ public class BookServiceImpl implements BookService {
 
     private static final DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
     private final BookRepository bookRepository;
     private final BookMapper bookMapper;
     private final InStockBookService inStockBookService;
-    private final BookProducer bookProducer;
+    private final BookOutboxRepository bookOutboxRepository;
+    private final BookEventCodec bookEventCodec;
+    private final BookInfoCache bookInfoCache;
+    private final BookAccessTracker bookAccessTracker;
+    private final BookIsbnIndex bookIsbnIndex;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     public BookServiceImpl(
         BookRepository bookRepository,
         BookMapper bookMapper,
         InStockBookService inStockBookService,
-        BookProducer bookProducer
+        BookOutboxRepository bookOutboxRepository,
+        BookEventCodec bookEventCodec,
+        BookInfoCache bookInfoCache,
+        BookAccessTracker bookAccessTracker,
+        BookIsbnIndex bookIsbnIndex,
+        ApplicationEventPublisher applicationEventPublisher
     ) {
         this.bookRepository = bookRepository;
         this.bookMapper = bookMapper;
         this.inStockBookService = inStockBookService;
-        this.bookProducer = bookProducer;
+        this.bookOutboxRepository = bookOutboxRepository;
+        this.bookEventCodec = bookEventCodec;
+        this.bookInfoCache = bookInfoCache;
+        this.bookAccessTracker = bookAccessTracker;
+        this.bookIsbnIndex = bookIsbnIndex;
+        this.applicationEventPublisher = applicationEventPublisher;
     }
 
     @Override
     public Book save(Book book) {
         log.debug("Request to save Book : {}", book);
-        return bookRepository.save(book);
+        BookEntityEvent.Action action = book.getId() == null ? BookEntityEvent.Action.CREATED : BookEntityEvent.Action.UPDATED;
+        Book result = bookRepository.save(book);
+        applicationEventPublisher.publishEvent(new BookEntityEvent(action, result));
+        return result;
     }
 
     @Override
@@ -64,6 +103,7 @@ public class BookServiceImpl implements BookService {
     @Transactional(readOnly = true)
     public Optional<Book> findOne(Long id) {
         log.debug("Request to get Book : {}", id);
+        bookAccessTracker.record(id);
         return bookRepository.findById(id);
     }
 
@@ -72,6 +112,7 @@ public class BookServiceImpl implements BookService {
         log.debug("Request to delete Book : {}", id);
         sendBookCatalogEvent("DELETE_BOOK", id);
         bookRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new BookEntityEvent(BookEntityEvent.Action.DELETED, id));
     }
 
     @Override
@@ -79,6 +120,7 @@ public class BookServiceImpl implements BookService {
         log.debug("Request to create Book : {}", book);
         Book createdBook = bookRepository.save(book);
         sendBookCatalogEvent("NEW_BOOK", createdBook.getId());
+        applicationEventPublisher.publishEvent(new BookEntityEvent(BookEntityEvent.Action.CREATED, createdBook));
         return createdBook;
     }
 
@@ -87,6 +129,7 @@ public class BookServiceImpl implements BookService {
         log.debug("Request to update Book : {}", book);
         Book updatedBook = bookRepository.save(book);
         sendBookCatalogEvent("UPDATE_BOOK", book.getId());
+        applicationEventPublisher.publishEvent(new BookEntityEvent(BookEntityEvent.Action.UPDATED, updatedBook));
         return updatedBook;
     }
 
@@ -95,35 +138,146 @@ public class BookServiceImpl implements BookService {
         Book book = bookRepository.findById(bookId).get();
         book.setBookStatus(BookStatus.valueOf(bookStatus));
         bookRepository.save(book);
+        applicationEventPublisher.publishEvent(new BookEntityEvent(BookEntityEvent.Action.STATUS_CHANGED, bookId));
+    }
+
+    @Override
+    public void processChangeBookStates(List<StockChanged> stockChangedList) {
+        log.debug("Request to process {} StockChanged events", stockChangedList.size());
+        // 같은 도서에 대한 이벤트는 마지막 상태만 남긴다
+        Map<Long, BookStatus> latestStatuses = new LinkedHashMap<>();
+        for (StockChanged stockChanged : stockChangedList) {
+            if (stockChanged.getBookId() == null || stockChanged.getBookStatus() == null) {
+                log.warn("Ignoring incomplete StockChanged event for book {}", stockChanged.getBookId());
+                continue;
+            }
+            try {
+                latestStatuses.put(stockChanged.getBookId(), BookStatus.valueOf(stockChanged.getBookStatus()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring unknown book status {} for book {}", stockChanged.getBookStatus(), stockChanged.getBookId());
+            }
+        }
+        int updated = bookRepository.updateBookStatuses(latestStatuses);
+        for (Long bookId : latestStatuses.keySet()) {
+            applicationEventPublisher.publishEvent(new BookEntityEvent(BookEntityEvent.Action.STATUS_CHANGED, bookId));
+        }
+        if (updated < latestStatuses.size()) {
+            log.warn("{} of {} books in the StockChanged batch were not found", latestStatuses.size() - updated, latestStatuses.size());
+        }
     }
 
     @Override
-    @Transactional
-    public Book findBookInfo(Long bookId) {
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<BookInfoDTO> findBookInfo(Long bookId) {
         log.debug("Request to findBookInfo Book : {}", bookId);
-        return bookRepository.findById(bookId).get();
+        bookAccessTracker.record(bookId);
+        // 캐시에 없을 때만 id, 제목 projection 을 조회한다 (캐시 적중 시 DB 커넥션을 잡지 않음)
+        return bookInfoCache.get(bookId, id -> bookRepository.findBookInfoById(id).orElse(null));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Book> findByIsbn(Long isbn) {
+        log.debug("Request to get Book by isbn : {}", isbn);
+        long id = bookIsbnIndex.find(isbn);
+        // 적재가 끝난 색인에 없는 isbn 은 DB 를 조회하지 않고 없다고 답한다
+        if (id == BookIsbnIndex.NONE) {
+            return Optional.empty();
+        }
+        if (id != BookIsbnIndex.UNKNOWN) {
+            // 커밋과 색인 반영 사이에 isbn 이 바뀌었을 수 있으므로 확인 후, 다르면 DB 에서 다시 찾는다
+            Optional<Book> book = bookRepository.findById(id).filter(b -> isbn.equals(b.getIsbn()));
+            if (book.isPresent()) {
+                return book;
+            }
+        }
+        return bookRepository.findFirstByIsbnOrderByIdAsc(isbn);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<BookInfoDTO> findBookInfos(List<Long> bookIds) {
+        log.debug("Request to findBookInfos for {} books", bookIds.size());
+        Set<Long> uniqueIds = new LinkedHashSet<>(bookIds);
+        uniqueIds.remove(null);
+        bookAccessTracker.record(uniqueIds);
+        // 캐시에 없는 id 만 IN 쿼리로 조회 (in_clause_parameter_padding 으로 쿼리 플랜 수를 줄임)
+        Map<Long, BookInfoDTO> bookInfos = bookInfoCache.getAll(uniqueIds, this::loadBookInfos);
+        List<BookInfoDTO> result = new ArrayList<>(bookInfos.size());
+        for (Long bookId : uniqueIds) {
+            BookInfoDTO bookInfo = bookInfos.get(bookId);
+            if (bookInfo != null) {
+                result.add(bookInfo);
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, BookInfoDTO> loadBookInfos(Iterable<? extends Long> bookIds) {
+        List<Long> ids = new ArrayList<>();
+        bookIds.forEach(ids::add);
+        Map<Long, BookInfoDTO> bookInfos = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()));
+            for (BookInfoDTO bookInfo : bookRepository.findBookInfoByIdIn(chunk)) {
+                bookInfos.put(bookInfo.getId(), bookInfo);
+            }
+        }
+        return bookInfos;
     }
 
     @Override
     public Book registerNewBook(Book book, Long inStockId) throws InterruptedException, ExecutionException, JsonProcessingException {
         Book newBook = bookRepository.save(book);
         inStockBookService.delete(inStockId);
-        sendBookCatalogEvent("NEW_BOOK", newBook.getId());
+        bookOutboxRepository.save(toOutbox("NEW_BOOK", newBook));
+        applicationEventPublisher.publishEvent(new BookEntityEvent(BookEntityEvent.Action.CREATED, newBook));
         return newBook;
     }
 
+    @Override
+    public List<Book> registerNewBooks(Map<Long, Book> booksByInStockId) throws JsonProcessingException {
+        log.debug("Request to register {} Books", booksByInStockId.size());
+        // 도서, 아웃박스 insert 는 커밋 시 hibernate.jdbc.batch_size 단위로 묶여 실행된다
+        List<Book> newBooks = bookRepository.saveAll(booksByInStockId.values());
+        int deleted = inStockBookService.deleteAll(booksByInStockId.keySet());
+        if (deleted != booksByInStockId.size()) {
+            // 단건 등록과 같이 없는 재고 도서가 있으면 전체를 롤백한다
+            throw new EmptyResultDataAccessException(
+                (booksByInStockId.size() - deleted) + " of the InStockBooks to register do not exist",
+                booksByInStockId.size()
+            );
+        }
+        // 저장한 엔티티로 바로 이벤트를 만들고, 릴레이가 한 번에 파이프라이닝해 전송한다
+        List<BookOutbox> outboxes = new ArrayList<>(newBooks.size());
+        for (Book newBook : newBooks) {
+            outboxes.add(toOutbox("NEW_BOOK", newBook));
+        }
+        bookOutboxRepository.saveAll(outboxes);
+        for (Book newBook : newBooks) {
+            applicationEventPublisher.publishEvent(new BookEntityEvent(BookEntityEvent.Action.CREATED, newBook));
+        }
+        return newBooks;
+    }
+
     @Override
     public void sendBookCatalogEvent(String eventType, Long bookId)
         throws InterruptedException, ExecutionException, JsonProcessingException {
+        if (!eventType.equals("NEW_BOOK") && !eventType.equals("UPDATE_BOOK") && !eventType.equals("DELETE_BOOK")) {
+            return;
+        }
         // 재고 도서 정보 조회
         Book book = bookRepository.findById(bookId).get();
+        // 이벤트 메시지는 같은 트랜잭션에서 아웃박스에 기록하고, BookOutboxRelay 가 비동기로 전송
+        bookOutboxRepository.save(toOutbox(eventType, book));
+    }
 
+    private BookOutbox toOutbox(String eventType, Book book) throws JsonProcessingException {
         // `도서변경됨` 이벤트 객체 생성
         BookChanged bookChanged = new BookChanged();
 
         // 신규 재고 도서이거나 재고 도서 수정인 경우
         if (eventType.equals("NEW_BOOK") || eventType.equals("UPDATE_BOOK")) {
-            bookChanged.setBookId(book.getId());
             bookChanged.setBookId(book.getId());
             bookChanged.setAuthor(book.getAuthor());
             bookChanged.setClassification(book.getClassification().toString());
@@ -133,13 +287,17 @@ public class BookServiceImpl implements BookService {
             bookChanged.setEventType(eventType);
             bookChanged.setRented(!book.getBookStatus().equals(BookStatus.AVAILABLE));
             bookChanged.setRentCnt((long) 0);
-            // 이벤트 메시지 전송
-            bookProducer.sendBookCreateEvent(bookChanged);
-        } else if (eventType.equals("DELETE_BOOK")) {
+        } else {
             bookChanged.setEventType(eventType);
             bookChanged.setBookId(book.getId());
-            // 이벤트 메시지 전송
-            bookProducer.sendBookDeleteEvent(bookChanged);
         }
+        // 새 도서는 커밋 전에 다른 트랜잭션이 이벤트를 기록할 수 없으므로 기본값 0 을 그대로 쓴다
+        long bookVersion = eventType.equals("NEW_BOOK") ? 0L : bookRepository.nextOutboxVersion(book.getId());
+        return new BookOutbox()
+            .bookId(book.getId())
+            .bookVersion(bookVersion)
+            .eventType(eventType)
+            .payload(bookEventCodec.writeOutboxPayload(bookChanged))
+            .createdDate(Instant.now());
     }
 }
@@ -1,15 +1,26 @@
 package com.my.book.service.impl;
 
 import com.my.book.domain.InStockBook;
+import com.my.book.domain.InStockBook_;
+import com.my.book.domain.SearchNgram;
 import com.my.book.repository.InStockBookRepository;
 import com.my.book.service.InStockBookService;
+import com.my.book.service.event.InStockBookEntityEvent;
+import com.my.book.service.search.NgramSpecifications;
+import com.my.book.service.search.SearchNgramIndexer;
 import com.my.book.web.rest.dto.InStockBookDTO;
 import com.my.book.web.rest.mapper.InStockBookMapper;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,19 +30,45 @@ public class InStockBookServiceImpl implements InStockBookService {
 
     private final Logger log = LoggerFactory.getLogger(InStockBookServiceImpl.class);
 
+    private static final int IN_CLAUSE_CHUNK_SIZE = 1000;
+
     private final InStockBookRepository inStockBookRepository;
 
     private final InStockBookMapper inStockBookMapper;
 
-    public InStockBookServiceImpl(InStockBookRepository inStockBookRepository, InStockBookMapper inStockBookMapper) {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final SearchNgramIndexer searchNgramIndexer;
+
+    public InStockBookServiceImpl(
+        InStockBookRepository inStockBookRepository,
+        InStockBookMapper inStockBookMapper,
+        ApplicationEventPublisher applicationEventPublisher,
+        SearchNgramIndexer searchNgramIndexer
+    ) {
         this.inStockBookRepository = inStockBookRepository;
         this.inStockBookMapper = inStockBookMapper;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.searchNgramIndexer = searchNgramIndexer;
     }
 
     @Override
     public InStockBook save(InStockBook inStockBook) {
         log.debug("Request to save InStockBook : {}", inStockBook);
-        return inStockBookRepository.save(inStockBook);
+        InStockBook result = inStockBookRepository.save(inStockBook);
+        applicationEventPublisher.publishEvent(new InStockBookEntityEvent(InStockBookEntityEvent.Action.SAVED, result));
+        return result;
+    }
+
+    @Override
+    public List<InStockBook> saveAll(List<InStockBook> inStockBooks) {
+        log.debug("Request to save {} InStockBooks", inStockBooks.size());
+        // insert 는 커밋 시 flush 되며 hibernate.jdbc.batch_size 단위로 묶인다
+        List<InStockBook> result = inStockBookRepository.saveAll(inStockBooks);
+        for (InStockBook inStockBook : result) {
+            applicationEventPublisher.publishEvent(new InStockBookEntityEvent(InStockBookEntityEvent.Action.SAVED, inStockBook));
+        }
+        return result;
     }
 
     @Override
@@ -52,10 +89,38 @@ public class InStockBookServiceImpl implements InStockBookService {
     public void delete(Long id) {
         log.debug("Request to delete InStockBook : {}", id);
         inStockBookRepository.deleteById(id);
+        applicationEventPublisher.publishEvent(new InStockBookEntityEvent(InStockBookEntityEvent.Action.DELETED, id));
     }
 
     @Override
+    public int deleteAll(Collection<Long> ids) {
+        log.debug("Request to delete {} InStockBooks", ids.size());
+        List<Long> idList = new ArrayList<>(ids);
+        int deleted = 0;
+        for (int from = 0; from < idList.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            deleted += inStockBookRepository.deleteByIdIn(idList.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, idList.size())));
+        }
+        for (Long id : idList) {
+            applicationEventPublisher.publishEvent(new InStockBookEntityEvent(InStockBookEntityEvent.Action.DELETED, id));
+        }
+        return deleted;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Page<InStockBookDTO> findByTitle(String title, Pageable pageable) {
-        return inStockBookRepository.findByTitleContaining(title, pageable).map(inStockBookMapper::toDto);
+        // 한글 제목은 n-gram 색인으로 후보를 좁힌 뒤 like 로 확인한다 (findByTitleContaining 과 같은 조건)
+        // 색인이 다 채워지기 전에는 색인에 없는 행이 빠지지 않도록 like 조건만 쓴다
+        String pattern = "%" + EscapeCharacter.DEFAULT.escape(title) + "%";
+        Specification<InStockBook> specification = Specification
+            .where(
+                searchNgramIndexer.isComplete(SearchNgram.EntityType.IN_STOCK_BOOK)
+                    ? NgramSpecifications.<InStockBook>containsInfix(SearchNgram.EntityType.IN_STOCK_BOOK, SearchNgram.FieldName.TITLE, title)
+                    : null
+            )
+            .and(
+                (root, query, builder) -> builder.like(root.get(InStockBook_.title), pattern, EscapeCharacter.DEFAULT.getEscapeCharacter())
+            );
+        return inStockBookRepository.findAll(specification, pageable).map(inStockBookMapper::toDto);
     }
 }
@@ -0,0 +1,257 @@
+package com.my.book.service.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.my.book.domain.InStockBook;
+import com.my.book.service.InStockBookService;
+import com.my.book.web.rest.dto.InStockBookDTO;
+import com.my.book.web.rest.mapper.InStockBookMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bulk import of {@link InStockBook}s from streamed CSV or NDJSON.
+ * <p>
+ * Rows are read incrementally in chunks: each chunk is converted and validated in parallel, then its valid rows are saved in one
+ * transaction, so memory use does not grow with the input and an invalid row does not stop the import. A chunk that fails to save
+ * is split in halves and saved again, down to the rows that cannot be saved, which are reported one by one.
+ */
+@Service
+public class InStockBookImporter {
+
+    public enum Format {
+        CSV,
+        NDJSON,
+    }
+
+    /**
+     * Receives the outcome of an import as it progresses.
+     */
+    public interface Listener {
+        void onError(long line, String message);
+
+        void onProgress(long processed, long imported, long failed);
+    }
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final int MAX_ERROR_LENGTH = 200;
+
+    private final Logger log = LoggerFactory.getLogger(InStockBookImporter.class);
+
+    private final InStockBookService inStockBookService;
+
+    private final InStockBookMapper inStockBookMapper;
+
+    private final ObjectMapper objectMapper;
+
+    public InStockBookImporter(InStockBookService inStockBookService, InStockBookMapper inStockBookMapper, ObjectMapper objectMapper) {
+        this.inStockBookService = inStockBookService;
+        this.inStockBookMapper = inStockBookMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Import every row of {@code reader}.
+     *
+     * @param reader the rows; a CSV input starts with a header naming the {@link InStockBookDTO} properties of its columns.
+     * @param format the format of the rows.
+     * @param listener receives the invalid rows and the progress after each chunk.
+     * @return the number of imported rows.
+     * @throws IOException if the input cannot be read.
+     */
+    public long importBooks(Reader reader, Format format, Listener listener) throws IOException {
+        BufferedReader buffered = new BufferedReader(reader);
+        RowSource source = format == Format.CSV ? new CsvRowSource(buffered) : new NdjsonRowSource(buffered);
+        long processed = 0;
+        long imported = 0;
+        long failed = 0;
+        List<Row> chunk;
+        while (!(chunk = source.readChunk()).isEmpty()) {
+            // JSON 변환과 검증은 행마다 독립이므로 병렬로 처리한다
+            List<Row> converted = chunk.parallelStream().map(this::convert).collect(Collectors.toList());
+            List<Row> valid = new ArrayList<>(converted.size());
+            for (Row row : converted) {
+                if (row.error != null) {
+                    listener.onError(row.line, row.error);
+                    failed++;
+                } else {
+                    valid.add(row);
+                }
+            }
+            if (!valid.isEmpty()) {
+                int saved = save(valid, listener);
+                imported += saved;
+                failed += valid.size() - saved;
+            }
+            processed += chunk.size();
+            listener.onProgress(processed, imported, failed);
+        }
+        return imported;
+    }
+
+    /**
+     * Save {@code rows} in one transaction; if that fails, save each half again, so that only the rows which cannot be saved fail.
+     *
+     * @return the number of saved rows.
+     */
+    private int save(List<Row> rows, Listener listener) {
+        try {
+            inStockBookService.saveAll(rows.stream().map(row -> row.entity).collect(Collectors.toList()));
+            return rows.size();
+        } catch (RuntimeException e) {
+            // 롤백된 트랜잭션에서 부여된 id 를 지워야 다시 새 엔티티로 저장된다
+            rows.forEach(row -> row.entity.setId(null));
+            if (rows.size() == 1) {
+                log.warn("Failed to save the InStockBook of line {}: {}", rows.get(0).line, message(e));
+                listener.onError(rows.get(0).line, "Not saved: " + message(e));
+                return 0;
+            }
+            log.debug("Failed to save {} InStockBooks, saving them in halves: {}", rows.size(), message(e));
+            int half = rows.size() / 2;
+            return save(rows.subList(0, half), listener) + save(rows.subList(half, rows.size()), listener);
+        }
+    }
+
+    private Row convert(Row row) {
+        if (row.error != null) {
+            return row;
+        }
+        try {
+            JsonNode json = row.json != null ? objectMapper.readTree(row.json) : row.fields;
+            if (json == null || !json.isObject()) {
+                return row.failed("Not a JSON object");
+            }
+            InStockBookDTO dto = objectMapper.treeToValue(json, InStockBookDTO.class);
+            if (dto.getId() != null) {
+                return row.failed("A new inStockBook cannot already have an ID");
+            }
+            if (dto.getTitle() == null || dto.getTitle().isBlank()) {
+                return row.failed("title is required");
+            }
+            row.entity = inStockBookMapper.toEntity(dto);
+            return row;
+        } catch (IOException | IllegalArgumentException e) {
+            return row.failed(message(e));
+        }
+    }
+
+    private static String message(Exception e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        // Jackson 메시지의 소스 위치 등 부가 정보는 잘라낸다
+        int newline = message.indexOf('\n');
+        if (newline >= 0) {
+            message = message.substring(0, newline);
+        }
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private static final class Row {
+
+        private final long line;
+        private final String json;
+        private final ObjectNode fields;
+        private String error;
+        private InStockBook entity;
+
+        private Row(long line, String json, ObjectNode fields) {
+            this.line = line;
+            this.json = json;
+            this.fields = fields;
+        }
+
+        private Row failed(String error) {
+            this.error = error;
+            return this;
+        }
+    }
+
+    private interface RowSource {
+        List<Row> readChunk() throws IOException;
+    }
+
+    private static final class NdjsonRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private long line;
+
+        private NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public List<Row> readChunk() throws IOException {
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            String text;
+            while (chunk.size() < CHUNK_SIZE && (text = reader.readLine()) != null) {
+                line++;
+                if (!text.isBlank()) {
+                    chunk.add(new Row(line, text, null));
+                }
+            }
+            return chunk;
+        }
+    }
+
+    private final class CsvRowSource implements RowSource {
+
+        private final CsvRecordReader reader;
+        private List<String> header;
+        // 더 읽을 수 없는 입력의 오류 (이미 읽은 행을 처리한 뒤 다음 호출에서 던진다)
+        private IllegalArgumentException unreadable;
+
+        private CsvRowSource(BufferedReader reader) {
+            this.reader = new CsvRecordReader(reader);
+        }
+
+        @Override
+        public List<Row> readChunk() throws IOException {
+            if (unreadable != null) {
+                throw unreadable;
+            }
+            if (header == null) {
+                header = reader.readRecord();
+                if (header == null) {
+                    return new ArrayList<>();
+                }
+                header = header.stream().map(String::trim).collect(Collectors.toList());
+            }
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<String> record;
+            try {
+                while (chunk.size() < CHUNK_SIZE && (record = reader.readRecord()) != null) {
+                    chunk.add(toRow(record));
+                }
+            } catch (IllegalArgumentException e) {
+                if (chunk.isEmpty()) {
+                    throw e;
+                }
+                unreadable = e;
+            }
+            return chunk;
+        }
+
+        private Row toRow(List<String> record) {
+            Row row = new Row(reader.getRecordLine(), null, objectMapper.createObjectNode());
+            if (record.size() != header.size()) {
+                return row.failed("Expected " + header.size() + " columns but got " + record.size());
+            }
+            for (int i = 0; i < header.size(); i++) {
+                // 빈 칸은 값이 없는 것으로 본다
+                String value = record.get(i).trim();
+                if (!value.isEmpty()) {
+                    row.fields.put(header.get(i), value);
+                }
+            }
+            return row;
+        }
+    }
+}
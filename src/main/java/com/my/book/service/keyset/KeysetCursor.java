@@ -0,0 +1,100 @@
+package com.my.book.service.keyset;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Position in a keyset (seek) paginated listing: the sort key and the id of the last row returned.
+ * <p>
+ * The cursor is exchanged with clients as an opaque base64url token, and also carries the sort so that
+ * following pages are always read in the order the first page was requested in.
+ */
+public final class KeysetCursor {
+
+    public static final String ID = "id";
+
+    private static final String SEPARATOR = "|";
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final String value;
+    private final Long id;
+
+    private KeysetCursor(String property, Sort.Direction direction, String value, Long id) {
+        this.property = property;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Cursor for the first page, sorted by the first order of {@code pageable} (by id ascending if none).
+     *
+     * @throws IllegalArgumentException if the sort property is not one of {@code sortable}.
+     */
+    public static KeysetCursor first(Pageable pageable, Set<String> sortable) {
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc(ID));
+        if (!sortable.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Unsupported keyset sort property: " + order.getProperty());
+        }
+        return new KeysetCursor(order.getProperty(), order.getDirection(), null, null);
+    }
+
+    /**
+     * Decode a token returned by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the token is malformed or its sort property is not one of {@code sortable}.
+     */
+    public static KeysetCursor decode(String token, Set<String> sortable) {
+        String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        // 정렬 값에 구분자가 들어있을 수 있으므로 값은 마지막에 둔다
+        String[] parts = decoded.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4 || !sortable.contains(parts[1])) {
+            throw new IllegalArgumentException("Invalid keyset cursor");
+        }
+        try {
+            String value = ID.equals(parts[1]) ? null : parts[3];
+            return new KeysetCursor(parts[1], Sort.Direction.fromString(parts[0]), value, Long.valueOf(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid keyset cursor", e);
+        }
+    }
+
+    /**
+     * Cursor positioned after {@code row}, read through its {@code id} and sort property fields.
+     */
+    public KeysetCursor after(Object row) {
+        DirectFieldAccessor accessor = new DirectFieldAccessor(row);
+        Object sortValue = ID.equals(property) ? null : accessor.getPropertyValue(property);
+        return new KeysetCursor(property, direction, sortValue == null ? null : sortValue.toString(), (Long) accessor.getPropertyValue(ID));
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, direction.name(), property, String.valueOf(id), value == null ? "" : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
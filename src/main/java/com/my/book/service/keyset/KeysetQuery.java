@@ -0,0 +1,92 @@
+package com.my.book.service.keyset;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Runs keyset (seek) paginated queries: rows after the cursor position, ordered by the cursor's sort key then id,
+ * without an offset and without a count query.
+ */
+public final class KeysetQuery {
+
+    private KeysetQuery() {}
+
+    /**
+     * Return up to {@code size} entities matching {@code specification} that come after {@code cursor}.
+     */
+    public static <T> Slice<T> findSlice(
+        EntityManager entityManager,
+        Class<T> type,
+        Specification<T> specification,
+        KeysetCursor cursor,
+        int size
+    ) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = builder.createQuery(type);
+        Root<T> root = query.from(type);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            predicates.add(predicate);
+        }
+        if (!cursor.isFirst()) {
+            predicates.add(after(builder, root, cursor));
+        }
+        query.select(root).where(predicates.toArray(new Predicate[0]));
+
+        boolean ascending = cursor.getDirection().isAscending();
+        Path<Long> id = root.get(KeysetCursor.ID);
+        if (KeysetCursor.ID.equals(cursor.getProperty())) {
+            query.orderBy(ascending ? builder.asc(id) : builder.desc(id));
+        } else {
+            Path<?> sortKey = root.get(cursor.getProperty());
+            query.orderBy(
+                ascending ? builder.asc(sortKey) : builder.desc(sortKey),
+                ascending ? builder.asc(id) : builder.desc(id)
+            );
+        }
+
+        // 다음 페이지가 있는지는 한 건 더 읽어서 판단한다
+        List<T> content = entityManager.createQuery(query).setMaxResults(size + 1).getResultList();
+        boolean hasNext = content.size() > size;
+        if (hasNext) {
+            content = content.subList(0, size);
+        }
+        Sort sort = Sort.by(cursor.getDirection(), cursor.getProperty());
+        return new SliceImpl<>(content, PageRequest.of(0, size, sort), hasNext);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Predicate after(CriteriaBuilder builder, Root<T> root, KeysetCursor cursor) {
+        boolean ascending = cursor.getDirection().isAscending();
+        Path<Long> id = root.get(KeysetCursor.ID);
+        Predicate afterId = ascending ? builder.greaterThan(id, cursor.getId()) : builder.lessThan(id, cursor.getId());
+        if (KeysetCursor.ID.equals(cursor.getProperty())) {
+            return afterId;
+        }
+        // (정렬 키 > 값) or (정렬 키 = 값 and id > 마지막 id)
+        Path<Comparable<Object>> sortKey = root.get(cursor.getProperty());
+        Comparable<Object> value = (Comparable<Object>) convert(cursor.getValue(), sortKey.getJavaType());
+        Predicate afterKey = ascending ? builder.greaterThan(sortKey, value) : builder.lessThan(sortKey, value);
+        return builder.or(afterKey, builder.and(builder.equal(sortKey, value), afterId));
+    }
+
+    private static Object convert(String value, Class<?> javaType) {
+        if (Long.class.equals(javaType)) {
+            return Long.valueOf(value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,121 @@
+package com.my.book.service.search;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Burkhard-Keller tree of terms under the Levenshtein distance.
+ * <p>
+ * Every child of a node sits at a fixed distance from it, so by the triangle inequality a search within distance {@code d} of a query
+ * only descends into the children at distance {@code [k - d, k + d]} of each visited node, where {@code k} is the query distance to it.
+ * Terms cannot be removed; callers ignore the terms they no longer use. Not thread-safe.
+ */
+public class BkTree {
+
+    private Node root;
+    private int size;
+
+    /**
+     * Add a term, unless it is already present.
+     */
+    public void add(String term) {
+        if (root == null) {
+            root = new Node(term);
+            size++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(node.term, term, Integer.MAX_VALUE);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(term));
+                size++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Pass every term within {@code maxDistance} edits of {@code query} to {@code action}, along with its distance.
+     */
+    public void search(String query, int maxDistance, ObjIntConsumer<String> action) {
+        if (root == null) {
+            return;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            // 자식 구간 선택에 필요한 만큼만 거리를 정확히 계산한다
+            int distance = distance(node.term, query, maxDistance + maxChildDistance(node));
+            if (distance <= maxDistance) {
+                action.accept(node.term, distance);
+            }
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                    pending.push(child.getValue());
+                }
+            }
+        }
+    }
+
+    private static int maxChildDistance(Node node) {
+        int max = 0;
+        for (Integer distance : node.children.keySet()) {
+            max = Math.max(max, distance);
+        }
+        return max;
+    }
+
+    /**
+     * Levenshtein distance between {@code a} and {@code b}, or any value greater than {@code limit} once it is known to exceed it.
+     */
+    static int distance(String a, String b, int limit) {
+        if (Math.abs(a.length() - b.length()) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+
+        private final String term;
+        private final Map<Integer, Node> children = new HashMap<>();
+
+        private Node(String term) {
+            this.term = term;
+        }
+    }
+}
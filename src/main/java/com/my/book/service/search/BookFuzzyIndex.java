@@ -0,0 +1,115 @@
+package com.my.book.service.search;
+
+import com.my.book.config.AsyncConfiguration;
+import com.my.book.domain.Book;
+import com.my.book.repository.BookRepository;
+import com.my.book.service.event.BookEntityEvent;
+import com.my.book.service.event.RemoteBookChangeEvent;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Typo-tolerant index of {@link Book} title and author.
+ * <p>
+ * Built from the database once the application is ready, then kept up to date from {@link BookEntityEvent}s after each commit
+ * and from {@link RemoteBookChangeEvent}s for the changes committed on other instances.
+ */
+@Component
+public class BookFuzzyIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(BookFuzzyIndex.class);
+
+    private final FuzzyIndex index = new FuzzyIndex();
+
+    private final LoadTracker loadTracker = new LoadTracker();
+
+    private final BookRepository bookRepository;
+
+    public BookFuzzyIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * The ids of the books whose title or author is within {@code maxEdits} edits per term of {@code query}, closest first.
+     */
+    public List<Long> search(String query, int maxEdits, int limit) {
+        return index.search(query, maxEdits, limit);
+    }
+
+    @Async(AsyncConfiguration.INDEX_TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Building book fuzzy index");
+        loadTracker.start();
+        index.clear();
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            // 엔티티를 읽으면 전체 목록이 2차 캐시를 지나며 자주 읽히는 항목을 밀어내므로 제목, 저자만 읽는다
+            rows = bookRepository.findIdTitleAndAuthorByIdGreaterThan(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (Object[] row : rows) {
+                lastId = (Long) row[0];
+                index.put(lastId, (String) row[1], (String) row[2]);
+            }
+        } while (rows.size() == REBUILD_BATCH_SIZE);
+        // 스캔한 행이 그 사이 커밋된 변경 이전의 값일 수 있으므로 바뀐 도서를 다시 읽는다
+        loadTracker.finish(this::reload);
+        log.info("Book fuzzy index built with {} books", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookEntityEvent(BookEntityEvent event) {
+        switch (event.getAction()) {
+            case CREATED:
+            case UPDATED:
+                loadTracker.changed(event.getBookId());
+                put(event.getBook());
+                break;
+            case DELETED:
+                loadTracker.changed(event.getBookId());
+                index.remove(event.getBookId());
+                break;
+            default:
+                // 재고 상태 변경은 색인 대상 필드와 무관
+        }
+    }
+
+    @Async
+    @EventListener
+    public void onRemoteBookChangeEvent(RemoteBookChangeEvent event) {
+        event.getBookIds().forEach(loadTracker::changed);
+        reload(event.getBookIds());
+    }
+
+    /**
+     * Index the current state of the books {@code ids}, removing those which no longer exist.
+     */
+    private void reload(Set<Long> ids) {
+        Map<Long, Object[]> rows = new HashMap<>(ids.size() * 2);
+        bookRepository.findIdTitleAndAuthorByIdIn(ids).forEach(row -> rows.put((Long) row[0], row));
+        for (Long id : ids) {
+            Object[] row = rows.get(id);
+            if (row == null) {
+                index.remove(id);
+            } else {
+                index.put(id, (String) row[1], (String) row[2]);
+            }
+        }
+    }
+
+    private void put(Book book) {
+        index.put(book.getId(), book.getTitle(), book.getAuthor());
+    }
+}
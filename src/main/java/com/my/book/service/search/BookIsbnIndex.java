@@ -0,0 +1,168 @@
+package com.my.book.service.search;
+
+import com.my.book.config.AsyncConfiguration;
+import com.my.book.domain.Book;
+import com.my.book.repository.BookRepository;
+import com.my.book.service.event.BookEntityEvent;
+import com.my.book.service.event.RemoteBookChangeEvent;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory index from {@link Book} isbn to id.
+ * <p>
+ * Loaded from the database once the application is ready, then kept up to date from {@link BookEntityEvent}s after each commit
+ * and from {@link RemoteBookChangeEvent}s for the changes committed on other instances.
+ * An isbn shared by several books is only marked as such: callers resolve it, like any lookup made before loading completes, in the database.
+ * Once loaded, {@link #NONE} is authoritative: a book created on another instance is only missed until its change event arrives.
+ */
+@Component
+public class BookIsbnIndex {
+
+    /** No book has the isbn. */
+    public static final long NONE = 0L;
+
+    /** The index cannot tell: it is still loading or several books share the isbn. */
+    public static final long UNKNOWN = -1L;
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final Logger log = LoggerFactory.getLogger(BookIsbnIndex.class);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongLongHashMap idByIsbn = new LongLongHashMap();
+
+    // 수정, 삭제 시 이전 isbn 항목을 지우기 위해 보관
+    private final LongLongHashMap isbnById = new LongLongHashMap();
+
+    private final LoadTracker loadTracker = new LoadTracker();
+
+    private volatile boolean loaded;
+
+    private final BookRepository bookRepository;
+
+    public BookIsbnIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * The id of the book with {@code isbn}, {@link #NONE} or {@link #UNKNOWN}.
+     */
+    public long find(long isbn) {
+        if (!loaded) {
+            return UNKNOWN;
+        }
+        lock.readLock().lock();
+        try {
+            return idByIsbn.get(isbn, NONE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Async(AsyncConfiguration.INDEX_TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.info("Loading book isbn index");
+        loadTracker.start();
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            rows = bookRepository.findIdAndIsbnByIdGreaterThan(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    put(lastId, (Long) row[1]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (rows.size() == LOAD_BATCH_SIZE);
+        // 스캔한 행이 그 사이 커밋된 변경 이전의 값일 수 있으므로 바뀐 도서를 다시 읽는다
+        loadTracker.finish(this::reload);
+        loaded = true;
+        log.info("Book isbn index loaded with {} isbns", idByIsbn.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookEntityEvent(BookEntityEvent event) {
+        switch (event.getAction()) {
+            case CREATED:
+            case UPDATED:
+                loadTracker.changed(event.getBookId());
+                lock.writeLock().lock();
+                try {
+                    remove(event.getBookId());
+                    put(event.getBookId(), event.getBook().getIsbn());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                break;
+            case DELETED:
+                loadTracker.changed(event.getBookId());
+                lock.writeLock().lock();
+                try {
+                    remove(event.getBookId());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                break;
+            default:
+                // 재고 상태 변경은 isbn 과 무관
+        }
+    }
+
+    @Async
+    @EventListener
+    public void onRemoteBookChangeEvent(RemoteBookChangeEvent event) {
+        event.getBookIds().forEach(loadTracker::changed);
+        reload(event.getBookIds());
+    }
+
+    /**
+     * Index the current isbn of the books {@code ids}, removing those which no longer exist.
+     */
+    private void reload(Set<Long> ids) {
+        List<Object[]> rows = bookRepository.findIdAndIsbnByIdIn(ids);
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::remove);
+            rows.forEach(row -> put((Long) row[0], (Long) row[1]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(long id, Long isbn) {
+        if (isbn == null) {
+            return;
+        }
+        long existing = idByIsbn.get(isbn, NONE);
+        idByIsbn.put(isbn, existing == NONE || existing == id ? id : UNKNOWN);
+        isbnById.put(id, isbn);
+    }
+
+    private void remove(long id) {
+        if (!isbnById.containsKey(id)) {
+            return;
+        }
+        long isbn = isbnById.get(id, NONE);
+        isbnById.remove(id);
+        // 여러 도서가 공유하던 isbn 은 남은 도서 수를 알 수 없으므로 UNKNOWN 으로 둔다
+        if (idByIsbn.get(isbn, NONE) == id) {
+            idByIsbn.remove(isbn);
+        }
+    }
+}
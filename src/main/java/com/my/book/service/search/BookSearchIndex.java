@@ -0,0 +1,123 @@
+package com.my.book.service.search;
+
+import com.my.book.config.AsyncConfiguration;
+import com.my.book.domain.Book;
+import com.my.book.repository.BookRepository;
+import com.my.book.service.event.BookEntityEvent;
+import com.my.book.service.event.RemoteBookChangeEvent;
+import com.my.book.web.rest.dto.SearchTextDTO;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Full-text index of {@link Book} title, author, publisher and description.
+ * <p>
+ * Built from the database once the application is ready, then kept up to date from {@link BookEntityEvent}s after each commit
+ * and from {@link RemoteBookChangeEvent}s for the changes committed on other instances.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(BookSearchIndex.class);
+
+    // 제목, 저자, 출판사, 설명 순서의 필드 가중치
+    private final TextIndex index = new TextIndex(new KoreanNgramTokenizer(), 3f, 2f, 1f, 0.5f);
+
+    private final LoadTracker loadTracker = new LoadTracker();
+
+    private final BookRepository bookRepository;
+
+    public BookSearchIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Search the books containing every term of {@code query}, most relevant first.
+     */
+    public Page<Long> search(String query, Pageable pageable) {
+        return index.search(query, pageable);
+    }
+
+    @Async(AsyncConfiguration.INDEX_TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Building book search index");
+        loadTracker.start();
+        index.clear();
+        long lastId = 0;
+        List<SearchTextDTO> rows;
+        do {
+            // 엔티티를 읽으면 전체 목록이 2차 캐시를 지나며 자주 읽히는 항목을 밀어내므로 색인 대상 필드만 읽는다
+            rows = bookRepository.findSearchTextByIdGreaterThan(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (SearchTextDTO row : rows) {
+                put(row);
+                lastId = row.getId();
+            }
+        } while (rows.size() == REBUILD_BATCH_SIZE);
+        // 스캔한 행이 그 사이 커밋된 변경 이전의 값일 수 있으므로 바뀐 도서를 다시 읽는다
+        loadTracker.finish(this::reload);
+        log.info("Book search index built with {} books", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookEntityEvent(BookEntityEvent event) {
+        switch (event.getAction()) {
+            case CREATED:
+            case UPDATED:
+                loadTracker.changed(event.getBookId());
+                put(event.getBook());
+                break;
+            case DELETED:
+                loadTracker.changed(event.getBookId());
+                index.remove(event.getBookId());
+                break;
+            default:
+                // 재고 상태 변경은 색인 대상 필드와 무관
+        }
+    }
+
+    @Async
+    @EventListener
+    public void onRemoteBookChangeEvent(RemoteBookChangeEvent event) {
+        event.getBookIds().forEach(loadTracker::changed);
+        reload(event.getBookIds());
+    }
+
+    /**
+     * Index the current state of the books {@code ids}, removing those which no longer exist.
+     */
+    private void reload(Set<Long> ids) {
+        Map<Long, SearchTextDTO> rows = new HashMap<>(ids.size() * 2);
+        bookRepository.findSearchTextByIdIn(ids).forEach(row -> rows.put(row.getId(), row));
+        for (Long id : ids) {
+            SearchTextDTO row = rows.get(id);
+            if (row == null) {
+                index.remove(id);
+            } else {
+                put(row);
+            }
+        }
+    }
+
+    private void put(SearchTextDTO row) {
+        index.put(row.getId(), row.getTitle(), row.getAuthor(), row.getPublisher(), row.getDescription());
+    }
+
+    private void put(Book book) {
+        index.put(book.getId(), book.getTitle(), book.getAuthor(), book.getPublisher(), book.getDescription());
+    }
+}
@@ -0,0 +1,318 @@
+package com.my.book.service.search;
+
+import com.my.book.config.AsyncConfiguration;
+import com.my.book.domain.Book;
+import com.my.book.repository.BookRepository;
+import com.my.book.service.event.BookEntityEvent;
+import com.my.book.service.event.RemoteBookChangeEvent;
+import com.my.book.web.rest.dto.BookSuggestionDTO;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Prefix autocomplete over {@link Book} titles and authors, ranked by popularity.
+ * <p>
+ * Suggestions are served from an immutable {@link SuggestionIndex} without touching the database. {@link BookEntityEvent}s
+ * and {@link RemoteBookChangeEvent}s apply at once: the books changed since the index was built are matched directly and merged
+ * into its results, and the suggestions no book holds any more are dropped.
+ * The index is rebuilt once a minute only when the popularity changed or too many books changed since the last build.
+ * Popularity is the access count saved by {@link com.my.book.service.cache.BookAccessTracker}, shared by every instance and
+ * kept across restarts.
+ */
+@Component
+public class BookSuggestIndex {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    // 바뀐 도서는 질의마다 직접 비교하므로 이보다 많아지면 다음 주기에 색인을 다시 만든다
+    private static final int MAX_CHANGED_BOOKS = 1000;
+
+    // 제목 중간 단어로도 찾을 수 있도록 단어 시작 위치마다 키를 만든다
+    private static final int MAX_WORD_KEYS = 8;
+
+    private final Logger log = LoggerFactory.getLogger(BookSuggestIndex.class);
+
+    private final Map<Long, Term[]> terms = new ConcurrentHashMap<>();
+
+    // 아래 필드는 lock 으로 보호한다
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // 제안마다 그 제안을 가진 도서 수 (0 이 되면 색인에 남아 있어도 제안하지 않는다)
+    private final Map<BookSuggestionDTO, Integer> owners = new HashMap<>();
+    // 색인을 만든 뒤 바뀐 도서
+    private Set<Long> changed = new HashSet<>();
+    // 색인을 만드는 동안 바뀐 도서 (만드는 중이 아니면 null)
+    private Set<Long> changedDuringBuild;
+    private SuggestionIndex<BookSuggestionDTO> index = SuggestionIndex.empty();
+
+    private final LoadTracker loadTracker = new LoadTracker();
+
+    private volatile boolean loaded;
+
+    private volatile Map<Long, Long> popularity = Collections.emptyMap();
+
+    private final BookRepository bookRepository;
+
+    public BookSuggestIndex(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * The {@code limit} most popular titles and authors starting with {@code prefix} or with one of their words starting with it.
+     */
+    public List<BookSuggestionDTO> suggest(String prefix, int limit) {
+        String normalized = SuggestionIndex.normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        Map<Long, Long> scores = popularity;
+        Map<BookSuggestionDTO, Long> ranked = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            // 바뀐 도서가 빼 간 제안을 걸러내도 limit 개가 남도록 그만큼 더 읽는다
+            index
+                .rank(normalized, limit + 2 * changed.size())
+                .forEach(
+                    (suggestion, score) -> {
+                        if (owners.containsKey(suggestion)) {
+                            ranked.put(suggestion, score);
+                        }
+                    }
+                );
+            for (Long id : changed) {
+                Term[] current = terms.get(id);
+                if (current == null) {
+                    continue;
+                }
+                long score = scores.getOrDefault(id, 0L);
+                for (Term term : current) {
+                    if (term.matches(normalized)) {
+                        ranked.merge(term.suggestion, score, Math::max);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ranked
+            .entrySet()
+            .stream()
+            .sorted(Map.Entry.<BookSuggestionDTO, Long>comparingByValue().reversed())
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    }
+
+    @Async(AsyncConfiguration.INDEX_TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.info("Loading book suggestions");
+        loadTracker.start();
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            // 엔티티를 읽으면 전체 목록이 2차 캐시를 지나며 자주 읽히는 항목을 밀어내므로 제목, 저자만 읽는다
+            rows = bookRepository.findIdTitleAndAuthorByIdGreaterThan(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            lock.writeLock().lock();
+            try {
+                for (Object[] row : rows) {
+                    lastId = (Long) row[0];
+                    put(lastId, (String) row[1], (String) row[2]);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (rows.size() == LOAD_BATCH_SIZE);
+        // 스캔한 행이 그 사이 커밋된 변경 이전의 값일 수 있으므로 바뀐 도서를 다시 읽는다
+        loadTracker.finish(this::reload);
+        popularity = bookRepository.findAccessCounts();
+        rebuild();
+        loaded = true;
+        log.info("Book suggestions loaded with {} keys", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookEntityEvent(BookEntityEvent event) {
+        if (event.getAction() == BookEntityEvent.Action.STATUS_CHANGED) {
+            // 재고 상태 변경은 제목, 저자와 무관
+            return;
+        }
+        loadTracker.changed(event.getBookId());
+        lock.writeLock().lock();
+        try {
+            if (event.getAction() == BookEntityEvent.Action.DELETED) {
+                remove(event.getBookId());
+            } else {
+                put(event.getBookId(), event.getBook().getTitle(), event.getBook().getAuthor());
+            }
+            markChanged(event.getBookId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Async
+    @EventListener
+    public void onRemoteBookChangeEvent(RemoteBookChangeEvent event) {
+        event.getBookIds().forEach(loadTracker::changed);
+        reload(event.getBookIds());
+    }
+
+    /**
+     * Rebuild the index when the saved popularity changed or too many books changed since the last build.
+     */
+    @Scheduled(initialDelay = 60_000, fixedDelay = 60_000)
+    public void rebuildIfChanged() {
+        if (!loaded) {
+            return;
+        }
+        Map<Long, Long> accessCounts = bookRepository.findAccessCounts();
+        boolean popularityChanged = !accessCounts.equals(popularity);
+        popularity = accessCounts;
+        int changedBooks;
+        lock.readLock().lock();
+        try {
+            changedBooks = changed.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (popularityChanged || changedBooks >= MAX_CHANGED_BOOKS) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // 만드는 동안 바뀐 도서는 이전 값과 새 값 중 어느 쪽이 들어가도 changedDuringBuild 로 바로잡는다
+        Map<Long, Long> scores = popularity;
+        SuggestionIndex.Builder<BookSuggestionDTO> builder = new SuggestionIndex.Builder<>();
+        for (Map.Entry<Long, Term[]> entry : terms.entrySet()) {
+            long score = scores.getOrDefault(entry.getKey(), 0L);
+            for (Term term : entry.getValue()) {
+                for (String key : term.keys) {
+                    builder.add(key, term.suggestion, score);
+                }
+            }
+        }
+        SuggestionIndex<BookSuggestionDTO> built = builder.build();
+        lock.writeLock().lock();
+        try {
+            index = built;
+            changed = changedDuringBuild;
+            changedDuringBuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Put the current titles and authors of the books {@code ids}, removing those which no longer exist.
+     */
+    private void reload(Set<Long> ids) {
+        Map<Long, Object[]> rows = new HashMap<>(ids.size() * 2);
+        bookRepository.findIdTitleAndAuthorByIdIn(ids).forEach(row -> rows.put((Long) row[0], row));
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                Object[] row = rows.get(id);
+                if (row == null) {
+                    remove(id);
+                } else {
+                    put(id, (String) row[1], (String) row[2]);
+                }
+                markChanged(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markChanged(Long id) {
+        changed.add(id);
+        if (changedDuringBuild != null) {
+            changedDuringBuild.add(id);
+        }
+    }
+
+    private void put(Long id, String title, String author) {
+        List<Term> current = new ArrayList<>(2);
+        if (title != null) {
+            current.add(new Term(new BookSuggestionDTO(title, BookSuggestionDTO.Type.TITLE)));
+        }
+        if (author != null) {
+            current.add(new Term(new BookSuggestionDTO(author, BookSuggestionDTO.Type.AUTHOR)));
+        }
+        Term[] array = current.toArray(new Term[0]);
+        for (Term term : array) {
+            owners.merge(term.suggestion, 1, Integer::sum);
+        }
+        release(terms.put(id, array));
+    }
+
+    private void remove(Long id) {
+        release(terms.remove(id));
+    }
+
+    private void release(Term[] previous) {
+        if (previous == null) {
+            return;
+        }
+        for (Term term : previous) {
+            owners.computeIfPresent(term.suggestion, (suggestion, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    /**
+     * A suggestion with its normalized word-start keys.
+     */
+    private static final class Term {
+
+        private final BookSuggestionDTO suggestion;
+        private final String[] keys;
+
+        private Term(BookSuggestionDTO suggestion) {
+            this.suggestion = suggestion;
+            String text = suggestion.getText();
+            List<String> wordKeys = new ArrayList<>();
+            for (int i = 0; i < text.length() && wordKeys.size() < MAX_WORD_KEYS; i++) {
+                boolean wordStart = !Character.isWhitespace(text.charAt(i)) && (i == 0 || Character.isWhitespace(text.charAt(i - 1)));
+                if (wordStart) {
+                    wordKeys.add(SuggestionIndex.normalize(text.substring(i)));
+                }
+            }
+            this.keys = wordKeys.toArray(new String[0]);
+        }
+
+        private boolean matches(String normalizedPrefix) {
+            for (String key : keys) {
+                if (key.startsWith(normalizedPrefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.my.book.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory typo-tolerant index of documents identified by a {@link Long} id.
+ * <p>
+ * The term dictionary is kept in a {@link BkTree}: each query term is expanded to the indexed terms within a few edits of it,
+ * and a document matches when every query term is close to one of its terms. Matches are ranked by their total number of edits.
+ * The tree cannot remove terms: it is rebuilt from the terms still in use once the unused ones outnumber them.
+ */
+public class FuzzyIndex {
+
+    private static final Comparator<Map.Entry<Long, Integer>> RANKING = Map.Entry
+        .<Long, Integer>comparingByValue()
+        .thenComparing(Map.Entry.comparingByKey());
+
+    private final Tokenizer tokenizer = new Tokenizer();
+
+    // 이보다 작은 사전은 쓰지 않는 단어가 있어도 다시 만들지 않는다
+    private static final int MIN_COMPACTION_SIZE = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private BkTree terms = new BkTree();
+
+    // 단어 -> 문서 id (비어 있게 된 단어는 다음 compaction 까지 BK-tree 에 남지만 여기서 빠진다)
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+
+    private final Map<Long, Set<String>> documents = new HashMap<>();
+
+    /**
+     * The number of edits allowed for a query term: none for very short terms, where any edit matches unrelated words.
+     */
+    static int allowedEdits(String term, int maxEdits) {
+        int length = term.codePointCount(0, term.length());
+        if (length <= 2) {
+            return 0;
+        }
+        return Math.min(maxEdits, length <= 4 ? 1 : 2);
+    }
+
+    /**
+     * Add or replace a document.
+     */
+    public void put(Long id, String... fields) {
+        Set<String> documentTerms = new HashSet<>();
+        for (String field : fields) {
+            documentTerms.addAll(tokenize(field));
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            for (String term : documentTerms) {
+                postings.computeIfAbsent(term, t -> new HashSet<>()).add(id);
+                terms.add(term);
+            }
+            documents.put(id, documentTerms);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            compactIfSparse();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            terms = new BkTree();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The number of terms in the dictionary, including those no document uses any more.
+     */
+    int dictionarySize() {
+        lock.readLock().lock();
+        try {
+            return terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The ids of the documents with a term within {@link #allowedEdits(String, int)} edits of every query term,
+     * fewest total edits first, then by id.
+     *
+     * @param query the query.
+     * @param maxEdits the maximum number of edits per query term, from 0 to 2.
+     * @param limit the maximum number of ids to return.
+     */
+    public List<Long> search(String query, int maxEdits, int limit) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Integer> matches = null;
+        lock.readLock().lock();
+        try {
+            for (String queryTerm : new HashSet<>(queryTerms)) {
+                // 문서별로 이 단어와 가장 가까운 단어까지의 편집 거리
+                Map<Long, Integer> termMatches = new HashMap<>();
+                terms.search(
+                    queryTerm,
+                    allowedEdits(queryTerm, maxEdits),
+                    (term, distance) -> {
+                        for (Long id : postings.getOrDefault(term, Collections.emptySet())) {
+                            termMatches.merge(id, distance, Math::min);
+                        }
+                    }
+                );
+                if (matches == null) {
+                    matches = termMatches;
+                } else {
+                    matches.keySet().retainAll(termMatches.keySet());
+                    matches.replaceAll((id, distance) -> distance + termMatches.get(id));
+                }
+                if (matches.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(matches.entrySet());
+        ranked.sort(RANKING);
+        List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && i < limit; i++) {
+            ids.add(ranked.get(i).getKey());
+        }
+        return ids;
+    }
+
+    private List<String> tokenize(String text) {
+        return text == null ? Collections.emptyList() : tokenizer.tokenize(Normalizer.normalize(text, Normalizer.Form.NFKC));
+    }
+
+    /**
+     * 쓰지 않는 단어가 쓰는 단어보다 많아지면 쓰는 단어만으로 BK-tree 를 다시 만든다 (쓰기 잠금을 잡은 상태에서 호출).
+     */
+    private void compactIfSparse() {
+        if (terms.size() < MIN_COMPACTION_SIZE || terms.size() <= 2 * postings.size()) {
+            return;
+        }
+        BkTree compacted = new BkTree();
+        postings.keySet().forEach(compacted::add);
+        terms = compacted;
+    }
+
+    private void removeDocument(Long id) {
+        Set<String> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous) {
+            Set<Long> ids = postings.get(term);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+}
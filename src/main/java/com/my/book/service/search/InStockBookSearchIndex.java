@@ -0,0 +1,122 @@
+package com.my.book.service.search;
+
+import com.my.book.config.AsyncConfiguration;
+import com.my.book.domain.InStockBook;
+import com.my.book.repository.InStockBookRepository;
+import com.my.book.service.event.InStockBookEntityEvent;
+import com.my.book.service.event.RemoteInStockBookChangeEvent;
+import com.my.book.web.rest.dto.SearchTextDTO;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Full-text index of {@link InStockBook} title, author, publisher and description.
+ * <p>
+ * Built from the database once the application is ready, then kept up to date from {@link InStockBookEntityEvent}s after each commit
+ * and from {@link RemoteInStockBookChangeEvent}s for the changes committed on other instances.
+ */
+@Component
+public class InStockBookSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(InStockBookSearchIndex.class);
+
+    // 제목, 저자, 출판사, 설명 순서의 필드 가중치
+    private final TextIndex index = new TextIndex(new KoreanNgramTokenizer(), 3f, 2f, 1f, 0.5f);
+
+    private final LoadTracker loadTracker = new LoadTracker();
+
+    private final InStockBookRepository inStockBookRepository;
+
+    public InStockBookSearchIndex(InStockBookRepository inStockBookRepository) {
+        this.inStockBookRepository = inStockBookRepository;
+    }
+
+    /**
+     * Search the in-stock books containing every term of {@code query}, most relevant first.
+     */
+    public Page<Long> search(String query, Pageable pageable) {
+        return index.search(query, pageable);
+    }
+
+    @Async(AsyncConfiguration.INDEX_TASK_EXECUTOR)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Building in-stock book search index");
+        loadTracker.start();
+        index.clear();
+        long lastId = 0;
+        List<SearchTextDTO> rows;
+        do {
+            // 엔티티를 읽으면 전체 목록이 2차 캐시를 지나며 자주 읽히는 항목을 밀어내므로 색인 대상 필드만 읽는다
+            rows = inStockBookRepository.findSearchTextByIdGreaterThan(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (SearchTextDTO row : rows) {
+                put(row);
+                lastId = row.getId();
+            }
+        } while (rows.size() == REBUILD_BATCH_SIZE);
+        // 스캔한 행이 그 사이 커밋된 변경 이전의 값일 수 있으므로 바뀐 도서를 다시 읽는다
+        loadTracker.finish(this::reload);
+        log.info("In-stock book search index built with {} books", index.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInStockBookEntityEvent(InStockBookEntityEvent event) {
+        loadTracker.changed(event.getInStockBookId());
+        if (event.getAction() == InStockBookEntityEvent.Action.SAVED) {
+            put(event.getInStockBook());
+        } else {
+            index.remove(event.getInStockBookId());
+        }
+    }
+
+    @Async
+    @EventListener
+    public void onRemoteInStockBookChangeEvent(RemoteInStockBookChangeEvent event) {
+        event.getInStockBookIds().forEach(loadTracker::changed);
+        reload(event.getInStockBookIds());
+    }
+
+    /**
+     * Index the current state of the in-stock books {@code ids}, removing those which no longer exist.
+     */
+    private void reload(Set<Long> ids) {
+        Map<Long, SearchTextDTO> rows = new HashMap<>(ids.size() * 2);
+        inStockBookRepository.findSearchTextByIdIn(ids).forEach(row -> rows.put(row.getId(), row));
+        for (Long id : ids) {
+            SearchTextDTO row = rows.get(id);
+            if (row == null) {
+                index.remove(id);
+            } else {
+                put(row);
+            }
+        }
+    }
+
+    private void put(SearchTextDTO row) {
+        index.put(row.getId(), row.getTitle(), row.getAuthor(), row.getPublisher(), row.getDescription());
+    }
+
+    private void put(InStockBook inStockBook) {
+        index.put(
+            inStockBook.getId(),
+            inStockBook.getTitle(),
+            inStockBook.getAuthor(),
+            inStockBook.getPublisher(),
+            inStockBook.getDescription()
+        );
+    }
+}
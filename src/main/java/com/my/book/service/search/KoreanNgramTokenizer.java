@@ -0,0 +1,96 @@
+package com.my.book.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenizer for mostly Korean text.
+ * <p>
+ * Text is NFKC normalized first, which composes decomposed jamo sequences into syllables and maps compatibility jamo and
+ * full-width characters to their canonical forms. Runs of Hangul syllables are then split into overlapping bigrams, so that
+ * compound words match any infix of two syllables or more; other runs of letters and digits are kept as whole lower-cased words.
+ */
+public class KoreanNgramTokenizer extends Tokenizer {
+
+    @Override
+    public List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> terms = new ArrayList<>();
+        String normalized = normalize(text);
+        int start = 0;
+        while (start < normalized.length()) {
+            char c = normalized.charAt(start);
+            if (isHangulSyllable(c)) {
+                int end = start;
+                while (end < normalized.length() && isHangulSyllable(normalized.charAt(end))) {
+                    end++;
+                }
+                addBigrams(normalized, start, end, terms);
+                start = end;
+            } else if (Character.isLetterOrDigit(c) && !isHangulJamo(c)) {
+                int end = start;
+                while (end < normalized.length() && isWordChar(normalized.charAt(end))) {
+                    end++;
+                }
+                terms.add(normalized.substring(start, end));
+                start = end;
+            } else {
+                // 구분자, 그리고 음절로 조합되지 않은 낱자(입력 중인 글자)는 버린다
+                start++;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The Hangul bigrams of {@code text}: every term a document containing {@code text} as an infix must also contain.
+     * Whole-word terms are left out because an infix of a word does not produce the same term.
+     */
+    public Set<String> infixGrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String term : tokenize(text)) {
+            if (term.length() == 2 && isHangulSyllable(term.charAt(0)) && isHangulSyllable(term.charAt(1))) {
+                grams.add(term);
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+    }
+
+    private static void addBigrams(String text, int start, int end, List<String> terms) {
+        if (end - start == 1) {
+            terms.add(text.substring(start, end));
+            return;
+        }
+        for (int i = start; i + 1 < end; i++) {
+            terms.add(text.substring(i, i + 2));
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) && !isHangulSyllable(c) && !isHangulJamo(c);
+    }
+
+    private static boolean isHangulSyllable(char c) {
+        return c >= '\uAC00' && c <= '\uD7A3';
+    }
+
+    private static boolean isHangulJamo(char c) {
+        return (
+            (c >= '\u1100' && c <= '\u11FF') ||
+            (c >= '\u3130' && c <= '\u318F') ||
+            (c >= '\uA960' && c <= '\uA97F') ||
+            (c >= '\uD7B0' && c <= '\uD7FF')
+        );
+    }
+}
@@ -0,0 +1,46 @@
+package com.my.book.service.search;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the ids changed while an in-memory index is loaded from the database.
+ * <p>
+ * A row read before a change committed would put the old document back after the change was applied:
+ * once the load completes, the changed ids are read again until none changed during the last pass.
+ */
+final class LoadTracker {
+
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean loading;
+
+    void start() {
+        changed.clear();
+        loading = true;
+    }
+
+    /**
+     * Record a change of {@code id}; call it before applying the change to the index.
+     */
+    void changed(Long id) {
+        if (loading) {
+            changed.add(id);
+        }
+    }
+
+    /**
+     * Read the ids changed during the load again with {@code reload}, then stop tracking.
+     */
+    void finish(Consumer<Set<Long>> reload) {
+        // 다시 읽는 동안 바뀐 id 가 있으면 한 번 더 읽는다
+        while (!changed.isEmpty()) {
+            Set<Long> ids = new HashSet<>(changed);
+            changed.removeAll(ids);
+            reload.accept(ids);
+        }
+        loading = false;
+    }
+}
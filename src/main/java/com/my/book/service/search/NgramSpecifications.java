@@ -0,0 +1,63 @@
+package com.my.book.service.search;
+
+import com.my.book.domain.SearchNgram;
+import com.my.book.domain.SearchNgram_;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * {@link Specification}s narrowing infix text searches through the persisted {@link SearchNgram} index.
+ * <p>
+ * They are a necessary condition only: combine them with the actual {@code like} filter, which then checks a few candidate rows
+ * instead of scanning the table.
+ */
+public final class NgramSpecifications {
+
+    // 후보를 좁히는 데는 몇 개의 n-gram 이면 충분하고, 나머지는 like 조건이 확인한다
+    private static final int MAX_GRAMS = 4;
+
+    private static final KoreanNgramTokenizer TOKENIZER = new KoreanNgramTokenizer();
+
+    private NgramSpecifications() {}
+
+    /**
+     * Entities whose {@code fieldName} may contain {@code value}, or {@code null} if {@code value} has no Hangul bigram to look up.
+     */
+    public static <T> Specification<T> containsInfix(SearchNgram.EntityType entityType, SearchNgram.FieldName fieldName, String value) {
+        Set<String> grams = TOKENIZER.infixGrams(value);
+        if (grams.isEmpty()) {
+            return null;
+        }
+        return (root, query, builder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            for (String gram : grams) {
+                if (predicates.size() == MAX_GRAMS) {
+                    break;
+                }
+                Subquery<Long> subquery = query.subquery(Long.class);
+                Root<SearchNgram> ngram = subquery.from(SearchNgram.class);
+                subquery
+                    .select(ngram.get(SearchNgram_.entityId))
+                    .where(
+                        builder.equal(ngram.get(SearchNgram_.entityType), entityType),
+                        builder.equal(ngram.get(SearchNgram_.fieldName), fieldName),
+                        builder.equal(ngram.get(SearchNgram_.gram), gram)
+                    );
+                predicates.add(root.get("id").in(subquery));
+            }
+            return builder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * The Hangul bigrams to persist for a field value.
+     */
+    public static Set<String> grams(String value) {
+        return TOKENIZER.infixGrams(value);
+    }
+}
@@ -0,0 +1,246 @@
+package com.my.book.service.search;
+
+import com.my.book.config.AsyncConfiguration;
+import com.my.book.domain.Book;
+import com.my.book.domain.InStockBook;
+import com.my.book.domain.SearchNgram;
+import com.my.book.repository.BookRepository;
+import com.my.book.repository.InStockBookRepository;
+import com.my.book.repository.SearchNgramRepository;
+import com.my.book.service.event.BookEntityEvent;
+import com.my.book.service.event.InStockBookEntityEvent;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the persisted {@link SearchNgram} index of book and in-stock book titles and authors.
+ * <p>
+ * Grams are written before commit, in the same transaction as the entity write, so infix searches never miss a committed row.
+ * Rows written before the index existed are backfilled once the application is ready; until the backfill of an entity type
+ * has indexed every row, {@link #isComplete} is false and searches must not narrow their candidates through the index.
+ * Completion is saved in {@code search_ngram_backfill}, so later restarts use the index at once.
+ */
+@Component
+public class SearchNgramIndexer {
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final Logger log = LoggerFactory.getLogger(SearchNgramIndexer.class);
+
+    private final SearchNgramRepository searchNgramRepository;
+    private final BookRepository bookRepository;
+    private final InStockBookRepository inStockBookRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor indexTaskExecutor;
+
+    // 모든 행의 n-gram 이 기록된 것을 확인한 엔티티 종류
+    private final Set<SearchNgram.EntityType> complete = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+
+    public SearchNgramIndexer(
+        SearchNgramRepository searchNgramRepository,
+        BookRepository bookRepository,
+        InStockBookRepository inStockBookRepository,
+        PlatformTransactionManager transactionManager,
+        @Qualifier(AsyncConfiguration.INDEX_TASK_EXECUTOR) Executor indexTaskExecutor
+    ) {
+        this.searchNgramRepository = searchNgramRepository;
+        this.bookRepository = bookRepository;
+        this.inStockBookRepository = inStockBookRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.indexTaskExecutor = indexTaskExecutor;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBookEntityEvent(BookEntityEvent event) {
+        switch (event.getAction()) {
+            case CREATED:
+            case UPDATED:
+                Book book = event.getBook();
+                searchNgramRepository.replaceGrams(SearchNgram.EntityType.BOOK, book.getId(), grams(book.getTitle(), book.getAuthor()));
+                break;
+            case DELETED:
+                searchNgramRepository.deleteGrams(SearchNgram.EntityType.BOOK, event.getBookId());
+                break;
+            default:
+                // 재고 상태 변경은 제목, 저자와 무관
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onInStockBookEntityEvent(InStockBookEntityEvent event) {
+        if (event.getAction() == InStockBookEntityEvent.Action.SAVED) {
+            InStockBook inStockBook = event.getInStockBook();
+            searchNgramRepository.replaceGrams(
+                SearchNgram.EntityType.IN_STOCK_BOOK,
+                inStockBook.getId(),
+                grams(inStockBook.getTitle(), inStockBook.getAuthor())
+            );
+        } else {
+            searchNgramRepository.deleteGrams(SearchNgram.EntityType.IN_STOCK_BOOK, event.getInStockBookId());
+        }
+    }
+
+    /**
+     * Whether every row of {@code entityType} has its grams recorded, so that the index may be used to narrow searches.
+     */
+    public boolean isComplete(SearchNgram.EntityType entityType) {
+        return complete.contains(entityType);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        // 한 번 완성된 색인은 저장과 같은 트랜잭션에서 유지되므로 재시작할 때 다시 스캔하지 않는다
+        try {
+            complete.addAll(searchNgramRepository.findBackfilledEntityTypes());
+        } catch (DataAccessException e) {
+            log.warn("Could not read the search n-gram backfill state: {}", e.getMessage());
+        }
+        scheduleBackfill();
+    }
+
+    /**
+     * 채우지 못한 행이 남아 있으면 주기적으로 다시 채운다.
+     */
+    @Scheduled(initialDelay = 300_000, fixedDelay = 300_000)
+    public void retryBackfill() {
+        scheduleBackfill();
+    }
+
+    private void scheduleBackfill() {
+        if (isComplete(SearchNgram.EntityType.BOOK) && isComplete(SearchNgram.EntityType.IN_STOCK_BOOK)) {
+            return;
+        }
+        // 전체 스캔이 스케줄러 스레드(아웃박스 릴레이와 공유)를 붙잡지 않도록 색인 실행기로 넘긴다
+        try {
+            indexTaskExecutor.execute(this::backfill);
+        } catch (TaskRejectedException e) {
+            log.warn("Could not schedule the search n-gram backfill: {}", e.getMessage());
+        }
+    }
+
+    void backfill() {
+        if (!backfilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            if (!isComplete(SearchNgram.EntityType.BOOK)) {
+                backfill(SearchNgram.EntityType.BOOK, bookRepository::findIdTitleAndAuthorByIdGreaterThan);
+            }
+            if (!isComplete(SearchNgram.EntityType.IN_STOCK_BOOK)) {
+                backfill(SearchNgram.EntityType.IN_STOCK_BOOK, inStockBookRepository::findIdTitleAndAuthorByIdGreaterThan);
+            }
+        } finally {
+            backfilling.set(false);
+        }
+    }
+
+    /**
+     * id 순으로 (id, 제목, 저자) 를 읽으면서, n-gram 이 하나도 기록되지 않은 엔티티만 배치로 기록한다.
+     * 한글 bigram 이 없는 엔티티는 기록할 행이 없으므로 건너뛴다.
+     * 배치가 실패하면 엔티티마다 따로 기록하고, 모든 행을 기록했을 때만 색인을 완성된 것으로 표시한다.
+     */
+    private void backfill(SearchNgram.EntityType entityType, RowReader reader) {
+        int backfilled = 0;
+        int failed = 0;
+        long lastId = 0;
+        List<Object[]> rows;
+        do {
+            // 엔티티를 읽으면 전체 목록이 2차 캐시를 지나며 자주 읽히는 항목을 밀어내므로 제목, 저자만 읽는다
+            rows = reader.read(lastId, PageRequest.of(0, BACKFILL_BATCH_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+            lastId = (Long) rows.get(rows.size() - 1)[0];
+            Map<Long, Map<SearchNgram.FieldName, Set<String>>> candidates = new HashMap<>();
+            for (Object[] row : rows) {
+                Map<SearchNgram.FieldName, Set<String>> grams = grams((String) row[1], (String) row[2]);
+                if (grams.values().stream().anyMatch(fieldGrams -> !fieldGrams.isEmpty())) {
+                    candidates.put((Long) row[0], grams);
+                }
+            }
+            if (candidates.isEmpty()) {
+                continue;
+            }
+            Set<Long> indexed = searchNgramRepository.findIndexedEntityIds(entityType, candidates.keySet());
+            Map<Long, Map<SearchNgram.FieldName, Set<String>>> missing = new HashMap<>(candidates);
+            missing.keySet().removeAll(indexed);
+            if (missing.isEmpty()) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> searchNgramRepository.insertMissingGrams(entityType, missing));
+                backfilled += missing.size();
+            } catch (DataAccessException e) {
+                // 같은 엔티티가 방금 저장되어 이미 기록된 경우 등: 배치 전체를 버리지 않고 엔티티마다 다시 기록한다
+                log.debug("Could not backfill search n-grams of {} up to id {} in one batch: {}", entityType, lastId, e.getMessage());
+                for (Map.Entry<Long, Map<SearchNgram.FieldName, Set<String>>> entry : missing.entrySet()) {
+                    if (backfillOne(entityType, entry.getKey(), entry.getValue())) {
+                        backfilled++;
+                    } else {
+                        failed++;
+                    }
+                }
+            }
+        } while (rows.size() == BACKFILL_BATCH_SIZE);
+        if (failed == 0) {
+            searchNgramRepository.markBackfilled(entityType);
+            complete.add(entityType);
+            log.info("Search n-gram index of {} complete, {} rows backfilled", entityType, backfilled);
+        } else {
+            log.warn("Search n-gram index of {} incomplete: {} rows backfilled, {} rows failed", entityType, backfilled, failed);
+        }
+    }
+
+    private boolean backfillOne(SearchNgram.EntityType entityType, Long entityId, Map<SearchNgram.FieldName, Set<String>> grams) {
+        // 동시에 저장된 같은 n-gram 과 부딪히면 기록된 n-gram 을 다시 읽어 한 번 더 시도한다
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(
+                    status -> searchNgramRepository.insertMissingGrams(entityType, Collections.singletonMap(entityId, grams))
+                );
+                return true;
+            } catch (DataAccessException e) {
+                if (attempt == 2) {
+                    log.warn("Could not backfill search n-grams of {} {}: {}", entityType, entityId, e.getMessage());
+                    return false;
+                }
+            }
+        }
+    }
+
+    private static Map<SearchNgram.FieldName, Set<String>> grams(String title, String author) {
+        Map<SearchNgram.FieldName, Set<String>> grams = new EnumMap<>(SearchNgram.FieldName.class);
+        grams.put(SearchNgram.FieldName.TITLE, NgramSpecifications.grams(title));
+        grams.put(SearchNgram.FieldName.AUTHOR, NgramSpecifications.grams(author));
+        return grams;
+    }
+
+    @FunctionalInterface
+    private interface RowReader {
+        List<Object[]> read(Long lastId, Pageable pageable);
+    }
+}
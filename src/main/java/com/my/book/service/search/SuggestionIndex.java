@@ -0,0 +1,181 @@
+package com.my.book.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable prefix index returning the top-k most popular suggestions starting with a prefix.
+ * <p>
+ * Keys are kept in a sorted array, so the keys starting with a prefix form one contiguous range found by binary search.
+ * A segment tree over the popularity of each key then yields the best keys of that range in {@code O(k log n)},
+ * independently of how many keys share the prefix.
+ * <p>
+ * Keys and queries are NFKD normalized and lower-cased: Hangul syllables are decomposed into jamo, so a query whose last syllable
+ * is still being typed ("자ㅂ") already matches its completions ("자바").
+ *
+ * @param <T> the type of the suggested values.
+ */
+public final class SuggestionIndex<T> {
+
+    private final String[] keys;
+    private final List<T> values;
+    private final long[] popularity;
+    // 구간 최댓값의 위치 (같은 값이면 앞선 키)
+    private final int[] tree;
+    private final int leaves;
+
+    private SuggestionIndex(String[] keys, List<T> values, long[] popularity) {
+        this.keys = keys;
+        this.values = values;
+        this.popularity = popularity;
+        int size = 1;
+        while (size < Math.max(1, keys.length)) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.tree = new int[2 * size];
+        Arrays.fill(tree, -1);
+        for (int i = 0; i < keys.length; i++) {
+            tree[size + i] = i;
+        }
+        for (int node = size - 1; node > 0; node--) {
+            tree[node] = better(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    public static <T> SuggestionIndex<T> empty() {
+        return new Builder<T>().build();
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * The values of the {@code limit} most popular keys starting with {@code prefix}, most popular first; duplicate values are returned once.
+     */
+    public List<T> suggest(String prefix, int limit) {
+        return new ArrayList<>(rank(prefix, limit).keySet());
+    }
+
+    /**
+     * Like {@link #suggest}, with the popularity of the best key of each value, in iteration order.
+     */
+    public Map<T, Long> rank(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return Collections.emptyMap();
+        }
+        int from = lowerBound(normalized);
+        int to = lowerBound(normalized + Character.MAX_VALUE);
+        if (from >= to) {
+            return Collections.emptyMap();
+        }
+        // 가장 인기 있는 키를 꺼내고, 그 키의 좌우 구간을 다시 후보로 넣는다
+        PriorityQueue<int[]> ranges = new PriorityQueue<>(
+            Comparator.<int[]>comparingLong(range -> -popularity[range[2]]).thenComparingInt(range -> range[2])
+        );
+        ranges.add(new int[] { from, to - 1, queryMax(from, to - 1) });
+        Map<T, Long> result = new LinkedHashMap<>();
+        while (!ranges.isEmpty() && result.size() < limit) {
+            int[] range = ranges.poll();
+            int best = range[2];
+            result.putIfAbsent(values.get(best), popularity[best]);
+            if (range[0] < best) {
+                ranges.add(new int[] { range[0], best - 1, queryMax(range[0], best - 1) });
+            }
+            if (best < range[1]) {
+                ranges.add(new int[] { best + 1, range[1], queryMax(best + 1, range[1]) });
+            }
+        }
+        return result;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFKD).toLowerCase(Locale.ROOT).trim();
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int queryMax(int from, int to) {
+        int best = -1;
+        for (int left = from + leaves, right = to + leaves + 1; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                best = better(best, tree[left++]);
+            }
+            if ((right & 1) == 1) {
+                best = better(best, tree[--right]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        if (b < 0) {
+            return a;
+        }
+        if (popularity[a] != popularity[b]) {
+            return popularity[a] > popularity[b] ? a : b;
+        }
+        return Math.min(a, b);
+    }
+
+    /**
+     * Collects keys, merging the popularity of identical keys with the same value.
+     */
+    public static final class Builder<T> {
+
+        private final Map<String, Map<T, Long>> entries = new HashMap<>();
+
+        public Builder<T> add(String key, T value, long popularity) {
+            String normalized = normalize(key);
+            if (!normalized.isEmpty()) {
+                entries.computeIfAbsent(normalized, k -> new HashMap<>()).merge(value, popularity, Long::sum);
+            }
+            return this;
+        }
+
+        public SuggestionIndex<T> build() {
+            List<String> sortedKeys = new ArrayList<>(entries.keySet());
+            Collections.sort(sortedKeys);
+            List<String> keys = new ArrayList<>();
+            List<T> values = new ArrayList<>();
+            List<Long> popularity = new ArrayList<>();
+            for (String key : sortedKeys) {
+                for (Map.Entry<T, Long> entry : entries.get(key).entrySet()) {
+                    keys.add(key);
+                    values.add(entry.getKey());
+                    popularity.add(entry.getValue());
+                }
+            }
+            return new SuggestionIndex<>(keys.toArray(new String[0]), values, popularity.stream().mapToLong(Long::longValue).toArray());
+        }
+    }
+}
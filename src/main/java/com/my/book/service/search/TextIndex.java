@@ -0,0 +1,230 @@
+package com.my.book.service.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * In-memory inverted index of documents identified by a {@link Long} id, each made of a fixed list of weighted text fields.
+ * <p>
+ * A search returns the documents containing every query term, ranked by BM25 over the weighted term frequencies,
+ * so its cost depends on the length of the posting lists of the query terms and not on the number of documents.
+ */
+public class TextIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Comparator<ScoredDocument> RANKING = Comparator
+        .comparingDouble(ScoredDocument::getScore)
+        .reversed()
+        .thenComparingLong(ScoredDocument::getId);
+
+    private final Tokenizer tokenizer;
+    private final float[] weights;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 단어 -> (문서 id -> 필드 가중치를 곱한 단어 빈도)
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>();
+
+    // 문서 id -> 색인된 단어와 가중 길이 (수정, 삭제 시 posting 을 지우기 위해 보관)
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+
+    private double totalLength;
+
+    public TextIndex(Tokenizer tokenizer, float... weights) {
+        this.tokenizer = tokenizer;
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Add or replace a document.
+     *
+     * @param id the id of the document.
+     * @param fields the text of each field, in the order of the weights given at construction; {@code null} for an empty field.
+     */
+    public void put(Long id, String... fields) {
+        if (fields.length != weights.length) {
+            throw new IllegalArgumentException("Expected " + weights.length + " fields but got " + fields.length);
+        }
+        // 토큰화는 잠금 밖에서 한다
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        for (int i = 0; i < fields.length; i++) {
+            for (String term : tokenizer.tokenize(fields[i])) {
+                frequencies.merge(term, weights[i], Float::sum);
+                length += weights[i];
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(id, entry.getValue());
+            }
+            documents.put(id, new IndexedDocument(frequencies.keySet().toArray(new String[0]), length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Search the documents containing every term of {@code query}.
+     *
+     * @param query the query text, tokenized like the indexed fields.
+     * @param pageable the page to return; its sort is ignored, results are ordered by relevance then id.
+     * @return the page of matching document ids, with the total number of matches.
+     */
+    public Page<Long> search(String query, Pageable pageable) {
+        Set<String> terms = new LinkedHashSet<>(tokenizer.tokenize(query));
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Float>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Float> list = postings.get(term);
+                if (list == null) {
+                    return Page.empty(pageable);
+                }
+                lists.add(list);
+            }
+            // 가장 짧은 posting list 를 기준으로 교집합을 구한다
+            lists.sort(Comparator.comparingInt(Map::size));
+
+            int documentCount = documents.size();
+            double averageLength = totalLength / documentCount;
+            double[] idf = new double[lists.size()];
+            for (int i = 0; i < lists.size(); i++) {
+                int n = lists.get(i).size();
+                idf[i] = Math.log(1 + (documentCount - n + 0.5) / (n + 0.5));
+            }
+
+            long limit = pageable.isPaged() ? pageable.getOffset() + pageable.getPageSize() : Long.MAX_VALUE;
+            PriorityQueue<ScoredDocument> top = new PriorityQueue<>(RANKING.reversed());
+            int total = 0;
+            for (Map.Entry<Long, Float> candidate : lists.get(0).entrySet()) {
+                Long id = candidate.getKey();
+                double norm = K1 * (1 - B + B * documents.get(id).length / averageLength);
+                double score = idf[0] * bm25(candidate.getValue(), norm);
+                boolean matchesAll = true;
+                for (int i = 1; i < lists.size() && matchesAll; i++) {
+                    Float frequency = lists.get(i).get(id);
+                    if (frequency == null) {
+                        matchesAll = false;
+                    } else {
+                        score += idf[i] * bm25(frequency, norm);
+                    }
+                }
+                if (matchesAll) {
+                    total++;
+                    top.offer(new ScoredDocument(id, score));
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+            }
+
+            List<ScoredDocument> ranked = new ArrayList<>(top);
+            ranked.sort(RANKING);
+            List<Long> ids = new ArrayList<>();
+            for (int i = pageable.isPaged() ? (int) pageable.getOffset() : 0; i < ranked.size(); i++) {
+                ids.add(ranked.get(i).getId());
+            }
+            return new PageImpl<>(ids, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static double bm25(double frequency, double norm) {
+        return frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    private void removeDocument(Long id) {
+        IndexedDocument document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms) {
+            Map<Long, Float> list = postings.get(term);
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= document.length;
+    }
+
+    private static class IndexedDocument {
+
+        private final String[] terms;
+        private final float length;
+
+        IndexedDocument(String[] terms, float length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+
+    private static class ScoredDocument {
+
+        private final long id;
+        private final double score;
+
+        ScoredDocument(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        double getScore() {
+            return score;
+        }
+    }
+}
@@ -1,29 +1,53 @@
 package com.my.book.web.rest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.my.book.domain.Book;
 import com.my.book.repository.BookRepository;
 import com.my.book.service.BookQueryService;
+import com.my.book.service.EstimatedPage;
 import com.my.book.service.BookService;
 import com.my.book.service.criteria.BookCriteria;
+import com.my.book.service.keyset.KeysetCursor;
+import com.my.book.service.search.BookSuggestIndex;
 import com.my.book.web.rest.dto.BookDTO;
 import com.my.book.web.rest.dto.BookInfoDTO;
+import com.my.book.web.rest.dto.BookRegistrationDTO;
+import com.my.book.web.rest.dto.BookSuggestionDTO;
 import com.my.book.web.rest.errors.BadRequestAlertException;
 import com.my.book.web.rest.mapper.BookMapper;
+import com.my.book.web.rest.util.KeysetPaginationUtil;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -40,6 +64,23 @@ public class BookResource {
 
     private static final String ENTITY_NAME = "bookBook";
 
+    private static final int MAX_BOOK_INFO_BATCH_SIZE = 5000;
+
+    private static final int MAX_REGISTRATION_BATCH_SIZE = 1000;
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private static final int MAX_FUZZY_EDITS = 2;
+
+    private static final String HEADER_X_TOTAL_COUNT_EXACT = "X-Total-Count-Exact";
+
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // 전체 카탈로그 내보내기에만 적용하는 비동기 요청 타임아웃
+    private static final long EXPORT_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -47,12 +88,23 @@ public class BookResource {
     private final BookRepository bookRepository;
     private final BookQueryService bookQueryService;
     private final BookMapper bookMapper;
+    private final ObjectMapper objectMapper;
+    private final BookSuggestIndex bookSuggestIndex;
 
-    public BookResource(BookService bookService, BookRepository bookRepository, BookQueryService bookQueryService, BookMapper bookMapper) {
+    public BookResource(
+        BookService bookService,
+        BookRepository bookRepository,
+        BookQueryService bookQueryService,
+        BookMapper bookMapper,
+        ObjectMapper objectMapper,
+        BookSuggestIndex bookSuggestIndex
+    ) {
         this.bookService = bookService;
         this.bookRepository = bookRepository;
         this.bookQueryService = bookQueryService;
         this.bookMapper = bookMapper;
+        this.objectMapper = objectMapper;
+        this.bookSuggestIndex = bookSuggestIndex;
     }
 
     /**
@@ -117,11 +169,208 @@ public class BookResource {
     @GetMapping("/books")
     public ResponseEntity<List<BookDTO>> getAllBooks(BookCriteria criteria, Pageable pageable) {
         log.debug("REST request to get Books by criteria: {}", criteria);
-        Page<BookDTO> page = bookQueryService.findByCriteria(criteria, pageable);
+        EstimatedPage<BookDTO> page = bookQueryService.findByCriteria(criteria, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        // X-Total-Count 가 캐시된 추정치인지 알려준다
+        headers.add(HEADER_X_TOTAL_COUNT_EXACT, Boolean.toString(page.isTotalExact()));
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /books/keyset} : get the books after a cursor, without counting them.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param pageable the slice size and, for the first slice, the sort ({@code id}, {@code title} or {@code author}).
+     * @param cursor the {@code X-Next-Cursor} value of the previous slice, absent for the first slice.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of books in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or sort is invalid.
+     */
+    @GetMapping("/books/keyset")
+    public ResponseEntity<List<BookDTO>> getAllBooksByKeyset(
+        BookCriteria criteria,
+        Pageable pageable,
+        @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        log.debug("REST request to get Books by criteria: {}, cursor: {}", criteria, cursor);
+        KeysetCursor keysetCursor;
+        try {
+            keysetCursor =
+                cursor == null
+                    ? KeysetCursor.first(pageable, BookQueryService.KEYSET_SORT_PROPERTIES)
+                    : KeysetCursor.decode(cursor, BookQueryService.KEYSET_SORT_PROPERTIES);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+        }
+        Slice<BookDTO> slice = bookQueryService.findByCriteria(criteria, keysetCursor, pageable.getPageSize());
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            keysetCursor
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code GET  /books/export} : stream all the books matching the criteria, ordered by id.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param format {@code ndjson} (one JSON document per line) or {@code csv}.
+     * @param response the response the books are streamed to, with status {@code 200 (OK)}.
+     * @return the task writing the books, with a timeout long enough to send the whole catalog.
+     */
+    @GetMapping("/books/export")
+    public WebAsyncTask<Void> exportBooks(
+        BookCriteria criteria,
+        @RequestParam(value = "format", defaultValue = "ndjson") String format,
+        HttpServletResponse response
+    ) {
+        log.debug("REST request to export Books as {} by criteria: {}", format, criteria);
+        // 결과를 메모리에 모으지 않고 DB 커서에서 읽는 대로 응답에 쓴다
+        // 전체 카탈로그를 보내는 동안 끊기지 않도록 이 요청에만 긴 비동기 타임아웃을 둔다
+        if ("csv".equalsIgnoreCase(format)) {
+            response.setContentType(TEXT_CSV.toString());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=books.csv");
+            return new WebAsyncTask<>(
+                EXPORT_TIMEOUT_MILLIS,
+                () -> {
+                    writeCsv(criteria, response.getOutputStream());
+                    return null;
+                }
+            );
+        }
+        if (!"ndjson".equalsIgnoreCase(format)) {
+            throw new BadRequestAlertException("Unsupported export format", ENTITY_NAME, "formatinvalid");
+        }
+        response.setContentType(APPLICATION_NDJSON.toString());
+        return new WebAsyncTask<>(
+            EXPORT_TIMEOUT_MILLIS,
+            () -> {
+                writeNdjson(criteria, response.getOutputStream());
+                return null;
+            }
+        );
+    }
+
+    private void writeNdjson(BookCriteria criteria, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(BookDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // 문서 사이 구분자는 기본 공백 대신 줄바꿈을 직접 쓴다
+            generator.setRootValueSeparator(null);
+            bookQueryService.streamByCriteria(
+                criteria,
+                bookDTO -> {
+                    try {
+                        writer.writeValue(generator, bookDTO);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            );
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeCsv(BookCriteria criteria, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,title,author,description,publisher,isbn,publicationDate,classification,bookStatus,location\n");
+        try {
+            bookQueryService.streamByCriteria(
+                criteria,
+                bookDTO -> {
+                    try {
+                        writer.write(
+                            String.join(
+                                ",",
+                                csv(bookDTO.getId()),
+                                csv(bookDTO.getTitle()),
+                                csv(bookDTO.getAuthor()),
+                                csv(bookDTO.getDescription()),
+                                csv(bookDTO.getPublisher()),
+                                csv(bookDTO.getIsbn()),
+                                csv(bookDTO.getPublicationDate()),
+                                csv(bookDTO.getClassification()),
+                                csv(bookDTO.getBookStatus()),
+                                csv(bookDTO.getLocation())
+                            )
+                        );
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            );
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * {@code SEARCH  /_search/books?query=:query} : search for the books corresponding to the query.
+     *
+     * @param query the query of the book search.
+     * @param pageable the pagination information.
+     * @return the result of the search, most relevant first.
+     */
+    @GetMapping("/_search/books")
+    public ResponseEntity<List<BookDTO>> searchBooks(@RequestParam String query, Pageable pageable) {
+        log.debug("REST request to search for a page of Books for query {}", query);
+        Page<BookDTO> page = bookQueryService.search(query, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /books/fuzzy?q=:q} : search for the books whose title or author is close to the query, tolerating typos.
+     *
+     * @param q the query, whose terms may each be misspelled.
+     * @param maxEdits the maximum number of edits per query term, from 0 to 2.
+     * @param criteria the criteria which the requested entities should match.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of books in body, fewest edits first.
+     */
+    @GetMapping("/books/fuzzy")
+    public ResponseEntity<List<BookDTO>> fuzzySearchBooks(
+        @RequestParam String q,
+        @RequestParam(defaultValue = "2") int maxEdits,
+        BookCriteria criteria,
+        Pageable pageable
+    ) {
+        log.debug("REST request to fuzzy search Books for query {} within {} edits by criteria: {}", q, maxEdits, criteria);
+        if (maxEdits < 0 || maxEdits > MAX_FUZZY_EDITS) {
+            throw new BadRequestAlertException("maxEdits must be between 0 and " + MAX_FUZZY_EDITS, ENTITY_NAME, "maxeditsinvalid");
+        }
+        Page<BookDTO> page = bookQueryService.findFuzzy(q, maxEdits, criteria, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /books/suggest?q=:q} : suggest the most popular titles and authors starting with the prefix.
+     *
+     * @param q the prefix typed so far.
+     * @param size the maximum number of suggestions.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the suggestions in body, most popular first.
+     */
+    @GetMapping("/books/suggest")
+    public ResponseEntity<List<BookSuggestionDTO>> suggestBooks(@RequestParam String q, @RequestParam(defaultValue = "10") int size) {
+        // 키 입력마다 호출되므로 DB 를 거치지 않고 메모리 색인에서만 응답한다
+        return ResponseEntity.ok().body(bookSuggestIndex.suggest(q, Math.min(size, MAX_SUGGESTIONS)));
+    }
+
     /**
      * {@code GET  /books/count} : count all the books.
      *
@@ -147,6 +396,18 @@ public class BookResource {
         return ResponseUtil.wrapOrNotFound(bookDTO);
     }
 
+    /**
+     * {@code GET  /books/isbn/:isbn} : get the book with the "isbn".
+     *
+     * @param isbn the isbn of the bookDTO to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the bookDTO, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/books/isbn/{isbn}")
+    public ResponseEntity<BookDTO> getBookByIsbn(@PathVariable Long isbn) {
+        log.debug("REST request to get Book by isbn : {}", isbn);
+        return ResponseUtil.wrapOrNotFound(bookService.findByIsbn(isbn).map(bookMapper::toDto));
+    }
+
     /**
      * {@code DELETE  /books/:id} : delete the "id" book.
      *
@@ -171,14 +432,28 @@ public class BookResource {
      * 도서 정보 조회 API
      *
      * @param bookId
-     * @return
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the bookInfoDTO, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/books/bookInfo/{bookId}")
     public ResponseEntity<BookInfoDTO> findBookInfo(@PathVariable("bookId") Long bookId) {
-        Book book = bookService.findBookInfo(bookId);
-        BookInfoDTO bookInfoDTO = new BookInfoDTO(bookId, book.getTitle());
-        log.debug(bookInfoDTO.toString());
-        return ResponseEntity.ok().body(bookInfoDTO);
+        log.debug("REST request to get BookInfo : {}", bookId);
+        return ResponseUtil.wrapOrNotFound(bookService.findBookInfo(bookId));
+    }
+
+    /**
+     * 여러 도서 정보 일괄 조회 API
+     *
+     * @param bookIds the ids of the books, at most {@value #MAX_BOOK_INFO_BATCH_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the bookInfoDTOs of the existing books in request order,
+     * or with status {@code 400 (Bad Request)} if too many ids are requested.
+     */
+    @PostMapping("/books/bookInfo:batch")
+    public ResponseEntity<List<BookInfoDTO>> findBookInfos(@RequestBody List<Long> bookIds) {
+        log.debug("REST request to get BookInfos : {} ids", bookIds.size());
+        if (bookIds.size() > MAX_BOOK_INFO_BATCH_SIZE) {
+            throw new BadRequestAlertException("Too many ids in one request", ENTITY_NAME, "toomanyids");
+        }
+        return ResponseEntity.ok().body(bookService.findBookInfos(bookIds));
     }
 
     /**
@@ -212,6 +487,36 @@ public class BookResource {
             .body(result);
     }
 
+    /**
+     * 여러 재고 도서 정보를 한 트랜잭션에서 일괄 등록
+     *
+     * @param registrations 재고 도서 id 와 등록할 도서 정보 목록
+     * @return 등록된 도서 정보 목록 (요청 순서)
+     * @throws JsonProcessingException
+     */
+    @PostMapping("/books/register:batch")
+    public ResponseEntity<List<BookDTO>> registerBooks(@RequestBody List<BookRegistrationDTO> registrations)
+        throws JsonProcessingException {
+        log.debug("REST request to register {} Books", registrations.size());
+        if (registrations.size() > MAX_REGISTRATION_BATCH_SIZE) {
+            throw new BadRequestAlertException("Too many books in one request", ENTITY_NAME, "toomanybooks");
+        }
+        Map<Long, Book> booksByInStockId = new LinkedHashMap<>();
+        for (BookRegistrationDTO registration : registrations) {
+            if (registration.getInStockId() == null || registration.getBook() == null) {
+                throw new BadRequestAlertException("Each registration needs an inStockId and a book", ENTITY_NAME, "registrationinvalid");
+            }
+            if (registration.getBook().getId() != null) {
+                throw new BadRequestAlertException("A new book cannot already have an ID", ENTITY_NAME, "idexists");
+            }
+            if (booksByInStockId.put(registration.getInStockId(), bookMapper.toEntity(registration.getBook())) != null) {
+                throw new BadRequestAlertException("Duplicate inStockId " + registration.getInStockId(), ENTITY_NAME, "instockidduplicate");
+            }
+        }
+        List<Book> newBooks = bookService.registerNewBooks(booksByInStockId);
+        return ResponseEntity.ok().body(bookMapper.toDto(newBooks));
+    }
+
     /**
      * 재고 도서 정보 수정
      *
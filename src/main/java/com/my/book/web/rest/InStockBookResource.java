@@ -1,26 +1,45 @@
 package com.my.book.web.rest;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.my.book.repository.InStockBookRepository;
 import com.my.book.service.InStockBookQueryService;
 import com.my.book.service.InStockBookService;
 import com.my.book.service.criteria.InStockBookCriteria;
+import com.my.book.service.importer.InStockBookImporter;
+import com.my.book.service.keyset.KeysetCursor;
 import com.my.book.web.rest.dto.InStockBookDTO;
 import com.my.book.web.rest.errors.BadRequestAlertException;
 import com.my.book.web.rest.mapper.InStockBookMapper;
+import com.my.book.web.rest.util.KeysetPaginationUtil;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -37,6 +56,11 @@ public class InStockBookResource {
 
     private static final String ENTITY_NAME = "bookInStockBook";
 
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    // 가져오기 요청에만 적용하는 비동기 요청 타임아웃
+    private static final long IMPORT_TIMEOUT_MILLIS = Duration.ofMinutes(30).toMillis();
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
@@ -44,17 +68,23 @@ public class InStockBookResource {
     private final InStockBookRepository inStockBookRepository;
     private final InStockBookQueryService inStockBookQueryService;
     private final InStockBookMapper inStockBookMapper;
+    private final InStockBookImporter inStockBookImporter;
+    private final ObjectMapper objectMapper;
 
     public InStockBookResource(
         InStockBookRepository inStockBookRepository,
         InStockBookMapper inStockBookMapper,
         InStockBookService inStockBookService,
-        InStockBookQueryService inStockBookQueryService
+        InStockBookQueryService inStockBookQueryService,
+        InStockBookImporter inStockBookImporter,
+        ObjectMapper objectMapper
     ) {
         this.inStockBookRepository = inStockBookRepository;
         this.inStockBookMapper = inStockBookMapper;
         this.inStockBookService = inStockBookService;
         this.inStockBookQueryService = inStockBookQueryService;
+        this.inStockBookImporter = inStockBookImporter;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -78,6 +108,118 @@ public class InStockBookResource {
             .body(result);
     }
 
+    /**
+     * {@code POST  /in-stock-books/import} : Create the inStockBooks of a streamed CSV or NDJSON body.
+     * <p>
+     * The response streams one JSON document per line: {@code {"line":..,"error":..}} for each rejected row,
+     * {@code {"processed":..,"imported":..,"failed":..}} after each chunk and a last one with {@code "done":true}.
+     *
+     * @param request the request, whose body is read while the import runs.
+     * @param response the response the import progress is streamed to, with status {@code 200 (OK)}.
+     * @return the task running the import, with a timeout long enough for large files;
+     * the status is {@code 400 (Bad Request)} if the content type is neither {@code text/csv} nor {@code application/x-ndjson}.
+     */
+    @PostMapping("/in-stock-books/import")
+    public WebAsyncTask<Void> importInStockBooks(HttpServletRequest request, HttpServletResponse response) {
+        InStockBookImporter.Format format = importFormat(request.getContentType());
+        log.debug("REST request to import InStockBooks from {}", format);
+        response.setContentType(APPLICATION_NDJSON.toString());
+        // 큰 파일을 가져오는 동안 끊기지 않도록 이 요청에만 긴 비동기 타임아웃을 둔다
+        return new WebAsyncTask<>(
+            IMPORT_TIMEOUT_MILLIS,
+            () -> {
+                writeImport(request, format, response.getOutputStream());
+                return null;
+            }
+        );
+    }
+
+    private InStockBookImporter.Format importFormat(String contentType) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.isCompatibleWith(APPLICATION_NDJSON)) {
+                return InStockBookImporter.Format.NDJSON;
+            }
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+                return InStockBookImporter.Format.CSV;
+            }
+        } catch (InvalidMediaTypeException e) {
+            // 아래에서 같은 오류로 응답
+        }
+        throw new BadRequestAlertException("Unsupported import content type", ENTITY_NAME, "contenttypeinvalid");
+    }
+
+    private void writeImport(HttpServletRequest request, InStockBookImporter.Format format, OutputStream out) throws IOException {
+        Charset charset = request.getCharacterEncoding() != null ? Charset.forName(request.getCharacterEncoding()) : StandardCharsets.UTF_8;
+        try (
+            Reader reader = new InputStreamReader(request.getInputStream(), charset);
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+        ) {
+            generator.setRootValueSeparator(null);
+            InStockBookImporter.Listener listener = new InStockBookImporter.Listener() {
+                @Override
+                public void onError(long line, String message) {
+                    writeLine(
+                        generator,
+                        g -> {
+                            g.writeNumberField("line", line);
+                            g.writeStringField("error", message);
+                        }
+                    );
+                }
+
+                @Override
+                public void onProgress(long processed, long imported, long failed) {
+                    writeLine(
+                        generator,
+                        g -> {
+                            g.writeNumberField("processed", processed);
+                            g.writeNumberField("imported", imported);
+                            g.writeNumberField("failed", failed);
+                        }
+                    );
+                    try {
+                        // 청크마다 진행 상황을 클라이언트로 내보낸다
+                        generator.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+            try {
+                inStockBookImporter.importBooks(reader, format, listener);
+                writeLine(generator, g -> g.writeBooleanField("done", true));
+            } catch (IllegalArgumentException e) {
+                // 닫히지 않은 따옴표처럼 더 읽을 수 없는 입력
+                writeLine(
+                    generator,
+                    g -> {
+                        g.writeStringField("error", e.getMessage());
+                        g.writeBooleanField("done", false);
+                    }
+                );
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeLine(JsonGenerator generator, JsonFields fields) {
+        try {
+            generator.writeStartObject();
+            fields.write(generator);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonFields {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
     /**
      * {@code PUT  /in-stock-books} : Updates an existing inStockBook.
      *
@@ -145,6 +287,55 @@ public class InStockBookResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /in-stock-books/keyset} : get the inStockBooks after a cursor, without counting them.
+     *
+     * @param criteria the criteria which the requested entities should match.
+     * @param pageable the slice size and, for the first slice, the sort direction on {@code id}.
+     * @param cursor the {@code X-Next-Cursor} value of the previous slice, absent for the first slice.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of inStockBooks in body,
+     * or with status {@code 400 (Bad Request)} if the cursor or sort is invalid.
+     */
+    @GetMapping("/in-stock-books/keyset")
+    public ResponseEntity<List<InStockBookDTO>> getAllInStockBooksByKeyset(
+        InStockBookCriteria criteria,
+        Pageable pageable,
+        @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        log.debug("REST request to get InStockBooks by criteria: {}, cursor: {}", criteria, cursor);
+        KeysetCursor keysetCursor;
+        try {
+            keysetCursor =
+                cursor == null
+                    ? KeysetCursor.first(pageable, InStockBookQueryService.KEYSET_SORT_PROPERTIES)
+                    : KeysetCursor.decode(cursor, InStockBookQueryService.KEYSET_SORT_PROPERTIES);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "cursorinvalid");
+        }
+        Slice<InStockBookDTO> slice = inStockBookQueryService.findByCriteria(criteria, keysetCursor, pageable.getPageSize());
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            slice,
+            keysetCursor
+        );
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * {@code SEARCH  /_search/in-stock-books?query=:query} : search for the inStockBooks corresponding to the query.
+     *
+     * @param query the query of the inStockBook search.
+     * @param pageable the pagination information.
+     * @return the result of the search, most relevant first.
+     */
+    @GetMapping("/_search/in-stock-books")
+    public ResponseEntity<List<InStockBookDTO>> searchInStockBooks(@RequestParam String query, Pageable pageable) {
+        log.debug("REST request to search for a page of InStockBooks for query {}", query);
+        Page<InStockBookDTO> page = inStockBookQueryService.search(query, pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
     /**
      * {@code GET  /in-stock-books/count} : count all the inStockBooks.
      *
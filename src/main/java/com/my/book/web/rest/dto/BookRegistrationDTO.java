@@ -0,0 +1,19 @@
+package com.my.book.web.rest.dto;
+
+import java.io.Serializable;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * A DTO pairing an {@link com.my.book.domain.InStockBook} id with the book it is registered as.
+ */
+@Getter
+@Setter
+@ToString
+public class BookRegistrationDTO implements Serializable {
+
+    private Long inStockId;
+
+    private BookDTO book;
+}
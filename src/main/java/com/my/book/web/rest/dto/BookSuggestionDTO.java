@@ -0,0 +1,19 @@
+package com.my.book.web.rest.dto;
+
+import java.io.Serializable;
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class BookSuggestionDTO implements Serializable {
+
+    private String text;
+    private Type type;
+
+    public enum Type {
+        TITLE,
+        AUTHOR,
+    }
+}
@@ -0,0 +1,18 @@
+package com.my.book.web.rest.dto;
+
+import java.io.Serializable;
+import lombok.*;
+
+/**
+ * The text fields of a book or an in-stock book read by the in-memory indexes, without loading the entity.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchTextDTO implements Serializable {
+
+    private Long id;
+    private String title;
+    private String author;
+    private String publisher;
+    private String description;
+}
@@ -0,0 +1,47 @@
+package com.my.book.web.rest.util;
+
+import com.my.book.service.keyset.KeysetCursor;
+import java.util.List;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination.
+ * <p>
+ * Unlike {@link tech.jhipster.web.util.PaginationUtil} there is no total count: the response only tells the client how to get the next slice,
+ * through the {@code X-Next-Cursor} header and a {@code rel="next"} link.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String HEADER_X_NEXT_CURSOR = "X-Next-Cursor";
+
+    private static final String CURSOR_PARAMETER = "cursor";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Generate keyset pagination headers for a Spring Data {@link Slice} object.
+     *
+     * @param uriBuilder The URI builder of the current request.
+     * @param slice The slice.
+     * @param cursor The cursor the slice was read with.
+     * @param <T> The type of object.
+     * @return http header.
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Slice<T> slice, KeysetCursor cursor) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            List<T> content = slice.getContent();
+            String nextCursor = cursor.after(content.get(content.size() - 1)).encode();
+            headers.add(HEADER_X_NEXT_CURSOR, nextCursor);
+            String link = uriBuilder
+                .replaceQueryParam(CURSOR_PARAMETER, nextCursor)
+                .replaceQueryParam("page")
+                .replaceQueryParam("size", slice.getSize())
+                .toUriString();
+            headers.add(HttpHeaders.LINK, "<" + link + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,209 @@
+package com.my.book.adaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.my.book.config.KafkaProperties;
+import com.my.book.domain.event.StockChanged;
+import com.my.book.service.BookService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class BookConsumerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition(BookConsumer.TOPIC, 0);
+
+    private static final long POISON_BOOK_ID = 13L;
+
+    private final KafkaProperties kafkaProperties = new KafkaProperties();
+
+    // processChangeBookStates 호출마다 (호출 시각, 도서 id 목록)
+    private final List<Call> calls = new CopyOnWriteArrayList<>();
+
+    private volatile int failuresLeft;
+
+    private LogConsumer consumer;
+
+    private BookConsumer bookConsumer;
+
+    @BeforeEach
+    public void setUp() {
+        kafkaProperties.setPollTimeout(Duration.ofMillis(10));
+        kafkaProperties.setConsumerRetryBackoff(Duration.ofMillis(100));
+        kafkaProperties.setConsumerMaxRetries(2);
+        BookService bookService = mock(BookService.class);
+        doAnswer(
+                invocation -> {
+                    List<StockChanged> stockChangedList = invocation.getArgument(0);
+                    List<Long> bookIds = stockChangedList.stream().map(StockChanged::getBookId).collect(Collectors.toList());
+                    calls.add(new Call(System.currentTimeMillis(), bookIds));
+                    if (failuresLeft > 0) {
+                        failuresLeft--;
+                        throw new IllegalStateException("database unavailable");
+                    }
+                    if (bookIds.contains(POISON_BOOK_ID)) {
+                        throw new IllegalStateException("poison record");
+                    }
+                    return null;
+                }
+            )
+            .when(bookService)
+            .processChangeBookStates(anyList());
+        consumer = new LogConsumer();
+        bookConsumer =
+            new BookConsumer(kafkaProperties, bookService, new BookEventCodec(new Jackson2ObjectMapperBuilder(), kafkaProperties));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bookConsumer.shutdown();
+    }
+
+    @Test
+    void commitsTheOffsetsAfterTheBatchIsProcessed() {
+        consumer.append(stockChanged(1L), stockChanged(2L));
+
+        bookConsumer.start(consumer);
+
+        awaitCommitted(2);
+        assertThat(calls).extracting(Call::getBookIds).containsExactly(List.of(1L, 2L));
+    }
+
+    @Test
+    void retriesAFailedBatchAfterABackoff() {
+        failuresLeft = 1;
+        consumer.append(stockChanged(1L), stockChanged(2L));
+
+        bookConsumer.start(consumer);
+
+        awaitCommitted(2);
+        assertThat(calls).extracting(Call::getBookIds).containsExactly(List.of(1L, 2L), List.of(1L, 2L));
+        assertThat(calls.get(1).getTime() - calls.get(0).getTime()).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    void skipsAPoisonRecordAfterTheMaximumRetries() {
+        consumer.append(stockChanged(1L), stockChanged(POISON_BOOK_ID), stockChanged(3L));
+
+        bookConsumer.start(consumer);
+
+        awaitCommitted(3);
+        // 배치로 두 번 실패한 뒤 레코드마다 처리해 13번만 건너뛴다
+        assertThat(calls)
+            .extracting(Call::getBookIds)
+            .containsExactly(
+                List.of(1L, POISON_BOOK_ID, 3L),
+                List.of(1L, POISON_BOOK_ID, 3L),
+                List.of(1L),
+                List.of(POISON_BOOK_ID),
+                List.of(3L)
+            );
+    }
+
+    private void awaitCommitted(long offset) {
+        await(
+            () -> {
+                OffsetAndMetadata committed = consumer.committedOffset();
+                return committed != null && committed.offset() == offset;
+            }
+        );
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static StockChanged stockChanged(Long bookId) {
+        StockChanged stockChanged = new StockChanged();
+        stockChanged.setBookId(bookId);
+        stockChanged.setBookStatus("UNAVAILABLE");
+        return stockChanged;
+    }
+
+    private static final class Call {
+
+        private final long time;
+        private final List<Long> bookIds;
+
+        private Call(long time, List<Long> bookIds) {
+            this.time = time;
+            this.bookIds = bookIds;
+        }
+
+        long getTime() {
+            return time;
+        }
+
+        List<Long> getBookIds() {
+            return bookIds;
+        }
+    }
+
+    /**
+     * A mock consumer of one partition that keeps its records like a broker log, so that seeking back delivers them again.
+     */
+    private static final class LogConsumer extends MockConsumer<String, StockChanged> {
+
+        private final List<ConsumerRecord<String, StockChanged>> log = new ArrayList<>();
+
+        private LogConsumer() {
+            super(OffsetResetStrategy.EARLIEST);
+            // 첫 poll 에서 구독한 파티션을 할당한다
+            schedulePollTask(
+                () -> {
+                    rebalance(Collections.singletonList(PARTITION));
+                    updateBeginningOffsets(Map.of(PARTITION, 0L));
+                }
+            );
+        }
+
+        synchronized void append(StockChanged... values) {
+            for (StockChanged value : values) {
+                String key = String.valueOf(value.getBookId());
+                log.add(new ConsumerRecord<>(BookConsumer.TOPIC, PARTITION.partition(), log.size(), key, value));
+            }
+        }
+
+        synchronized OffsetAndMetadata committedOffset() {
+            return committed(Set.of(PARTITION)).get(PARTITION);
+        }
+
+        @Override
+        public synchronized ConsumerRecords<String, StockChanged> poll(Duration timeout) {
+            // MockConsumer 는 한 번 돌려준 레코드를 지우므로, 현재 위치부터 다시 넣어 둔다
+            if (assignment().contains(PARTITION) && !paused().contains(PARTITION)) {
+                long position = position(PARTITION);
+                log.stream().filter(record -> record.offset() >= position).forEach(this::addRecord);
+            }
+            return super.poll(timeout);
+        }
+    }
+}
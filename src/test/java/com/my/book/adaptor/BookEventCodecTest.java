@@ -0,0 +1,49 @@
+package com.my.book.adaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.my.book.config.KafkaProperties;
+import com.my.book.domain.event.BookChanged;
+import com.my.book.domain.event.StockChanged;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class BookEventCodecTest {
+
+    @Test
+    void decodesStockChangedFromJson() {
+        BookEventCodec codec = new BookEventCodec(new Jackson2ObjectMapperBuilder(), new KafkaProperties());
+        byte[] message = "{\"bookId\":3,\"bookStatus\":\"UNAVAILABLE\",\"extra\":true}".getBytes(StandardCharsets.UTF_8);
+
+        StockChanged stockChanged = codec.stockChangedDeserializer().deserialize("topic_book", message);
+
+        assertThat(stockChanged.getBookId()).isEqualTo(3L);
+        assertThat(stockChanged.getBookStatus()).isEqualTo("UNAVAILABLE");
+    }
+
+    @Test
+    void skipsMalformedStockChanged() {
+        BookEventCodec codec = new BookEventCodec(new Jackson2ObjectMapperBuilder(), new KafkaProperties());
+
+        assertThat(codec.stockChangedDeserializer().deserialize("topic_book", "not-json".getBytes(StandardCharsets.UTF_8))).isNull();
+    }
+
+    @Test
+    void encodesBookChangedAsCbor() throws Exception {
+        KafkaProperties kafkaProperties = new KafkaProperties();
+        kafkaProperties.setEventFormat(KafkaProperties.EventFormat.CBOR);
+        BookEventCodec codec = new BookEventCodec(new Jackson2ObjectMapperBuilder(), kafkaProperties);
+        BookChanged bookChanged = new BookChanged();
+        bookChanged.setBookId(7L);
+        bookChanged.setTitle("토지");
+        bookChanged.setEventType("NEW_BOOK");
+
+        byte[] message = codec.bookChangedSerializer().serialize("topic_catalog", bookChanged);
+        BookChanged fromOutbox = codec.readOutboxPayload(codec.writeOutboxPayload(bookChanged));
+
+        assertThat(new String(message, StandardCharsets.UTF_8)).doesNotStartWith("{");
+        assertThat(fromOutbox.getBookId()).isEqualTo(7L);
+        assertThat(fromOutbox.getTitle()).isEqualTo("토지");
+    }
+}
@@ -0,0 +1,102 @@
+package com.my.book.adaptor;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.my.book.config.KafkaProperties;
+import com.my.book.domain.BookOutbox;
+import com.my.book.domain.event.BookChanged;
+import com.my.book.repository.BookOutboxRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+class BookOutboxRelayTest {
+
+    private BookOutboxRepository bookOutboxRepository;
+
+    private BookProducer bookProducer;
+
+    private BookEventCodec bookEventCodec;
+
+    private BookOutboxRelay relay;
+
+    @BeforeEach
+    public void setUp() {
+        bookOutboxRepository = mock(BookOutboxRepository.class);
+        bookProducer = mock(BookProducer.class);
+        bookEventCodec = new BookEventCodec(new Jackson2ObjectMapperBuilder(), new KafkaProperties());
+        when(bookOutboxRepository.acquireLease(eq("book_outbox"), anyString(), any(), any())).thenReturn(1);
+        when(bookProducer.sendBookChangedAsync(any())).thenReturn(CompletableFuture.completedFuture(null));
+        relay = new BookOutboxRelay(bookOutboxRepository, bookProducer, bookEventCodec, new KafkaProperties());
+    }
+
+    @Test
+    void sendsPendingEventsInOrderAndDeletesAcknowledgedRows() throws Exception {
+        when(bookOutboxRepository.findAllByOrderByBookIdAscBookVersionAscIdAsc(any()))
+            .thenReturn(List.of(outbox(10L, 1L, 1L, "NEW_BOOK"), outbox(7L, 1L, 2L, "UPDATE_BOOK")));
+
+        relay.relay();
+
+        InOrder inOrder = inOrder(bookProducer);
+        inOrder.verify(bookProducer).sendBookChangedAsync(eventType("NEW_BOOK"));
+        inOrder.verify(bookProducer).sendBookChangedAsync(eventType("UPDATE_BOOK"));
+        verify(bookOutboxRepository).deleteByIdIn(List.of(10L, 7L));
+    }
+
+    @Test
+    void keepsRowsFromTheFirstUnacknowledgedEvent() throws Exception {
+        when(bookOutboxRepository.findAllByOrderByBookIdAscBookVersionAscIdAsc(any()))
+            .thenReturn(List.of(outbox(1L, 1L, 1L, "NEW_BOOK"), outbox(2L, 1L, 2L, "UPDATE_BOOK"), outbox(3L, 2L, 0L, "NEW_BOOK")));
+        CompletableFuture<RecordMetadata> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("broker unavailable"));
+        when(bookProducer.sendBookChangedAsync(eventType("UPDATE_BOOK"))).thenReturn(failed);
+
+        relay.relay();
+
+        // 2번부터는 다음 실행에서 다시 보낸다
+        verify(bookOutboxRepository).deleteByIdIn(List.of(1L));
+    }
+
+    @Test
+    void sendsNothingWithoutTheLease() {
+        when(bookOutboxRepository.acquireLease(eq("book_outbox"), anyString(), any(), any())).thenReturn(0);
+
+        relay.relay();
+
+        verify(bookOutboxRepository, never()).findAllByOrderByBookIdAscBookVersionAscIdAsc(any());
+        verify(bookProducer, never()).sendBookChangedAsync(any());
+        verify(bookOutboxRepository, never()).deleteByIdIn(anyCollection());
+    }
+
+    private BookOutbox outbox(Long id, Long bookId, Long bookVersion, String eventType) throws Exception {
+        BookChanged bookChanged = new BookChanged();
+        bookChanged.setBookId(bookId);
+        bookChanged.setEventType(eventType);
+        BookOutbox outbox = new BookOutbox()
+            .bookId(bookId)
+            .bookVersion(bookVersion)
+            .eventType(eventType)
+            .payload(bookEventCodec.writeOutboxPayload(bookChanged))
+            .createdDate(Instant.now());
+        outbox.setId(id);
+        return outbox;
+    }
+
+    private static BookChanged eventType(String eventType) {
+        return argThat(bookChanged -> bookChanged != null && eventType.equals(bookChanged.getEventType()));
+    }
+}
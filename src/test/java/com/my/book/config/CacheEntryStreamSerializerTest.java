@@ -0,0 +1,64 @@
+package com.my.book.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hazelcast.config.SerializationConfig;
+import com.hazelcast.config.SerializerConfig;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.my.book.domain.Book;
+import com.my.book.domain.enumeration.BookStatus;
+import com.my.book.domain.enumeration.Location;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import org.hibernate.cache.spi.entry.StandardCacheEntryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CacheEntryStreamSerializerTest {
+
+    private InternalSerializationService serializationService;
+
+    @BeforeEach
+    public void setUp() {
+        SerializationConfig config = new SerializationConfig()
+            .addSerializerConfig(
+                new SerializerConfig().setTypeClass(StandardCacheEntryImpl.class).setImplementation(new CacheEntryStreamSerializer())
+            );
+        serializationService = new DefaultSerializationServiceBuilder().setConfig(config).build();
+    }
+
+    @Test
+    void roundTripsDisassembledState() {
+        Serializable[] state = new Serializable[] {
+            "자바의 정석",
+            null,
+            9788994492032L,
+            LocalDate.of(2016, 1, 27),
+            BookStatus.UNAVAILABLE,
+            Location.PANGYO,
+            42,
+            true,
+            new BigDecimal("1.5"),
+        };
+        StandardCacheEntryImpl entry = CacheEntryStreamSerializer.newEntry(state, Book.class.getName(), null);
+
+        StandardCacheEntryImpl read = serializationService.toObject(serializationService.toData(entry));
+
+        assertThat(read.getSubclass()).isEqualTo(Book.class.getName());
+        assertThat(read.getVersion()).isNull();
+        assertThat(read.getDisassembledState()).containsExactly(state);
+    }
+
+    @Test
+    void writesUnknownEntityNames() {
+        StandardCacheEntryImpl entry = CacheEntryStreamSerializer.newEntry(new Serializable[] { 1L }, "com.example.Other", 3);
+
+        StandardCacheEntryImpl read = serializationService.toObject(serializationService.toData(entry));
+
+        assertThat(read.getSubclass()).isEqualTo("com.example.Other");
+        assertThat(read.getVersion()).isEqualTo(3);
+        assertThat(read.getDisassembledState()).containsExactly(1L);
+    }
+}
@@ -0,0 +1,87 @@
+package com.my.book.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.my.book.IntegrationTest;
+import com.my.book.domain.BookOutbox;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link BookOutboxRepository}.
+ */
+@IntegrationTest
+@Transactional
+class BookOutboxRepositoryIT {
+
+    // 실행 중인 릴레이가 쓰는 임차와 겹치지 않는 이름
+    private static final String LEASE_NAME = "book_outbox_test";
+
+    @Autowired
+    private BookOutboxRepository bookOutboxRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @BeforeEach
+    public void initTest() {
+        em
+            .createNativeQuery("insert into outbox_relay_lease (name, locked_until, locked_by) values (:name, :lockedUntil, '')")
+            .setParameter("name", LEASE_NAME)
+            .setParameter("lockedUntil", Instant.EPOCH)
+            .executeUpdate();
+    }
+
+    @Test
+    void leaseIsHeldByOneOwnerUntilItExpires() {
+        Instant now = Instant.now();
+
+        assertThat(bookOutboxRepository.acquireLease(LEASE_NAME, "a", now, now.plusSeconds(30))).isEqualTo(1);
+        // 만료 전에는 다른 인스턴스가 가져갈 수 없고, 가진 인스턴스는 갱신할 수 있다
+        assertThat(bookOutboxRepository.acquireLease(LEASE_NAME, "b", now.plusSeconds(10), now.plusSeconds(40))).isZero();
+        assertThat(bookOutboxRepository.acquireLease(LEASE_NAME, "a", now.plusSeconds(10), now.plusSeconds(40))).isEqualTo(1);
+
+        // 갱신하지 않고 만료되면 다른 인스턴스가 이어받는다
+        assertThat(bookOutboxRepository.acquireLease(LEASE_NAME, "b", now.plusSeconds(41), now.plusSeconds(71))).isEqualTo(1);
+        assertThat(bookOutboxRepository.acquireLease(LEASE_NAME, "a", now.plusSeconds(42), now.plusSeconds(72))).isZero();
+    }
+
+    @Test
+    void pendingEventsFollowTheBookVersionNotTheId() {
+        // 더 작은 id 를 미리 할당받은 인스턴스가 나중에 커밋한 이벤트
+        BookOutbox later = bookOutboxRepository.saveAndFlush(outbox(-1L, 2L));
+        BookOutbox earlier = bookOutboxRepository.saveAndFlush(outbox(-1L, 1L));
+
+        // 실제 도서 id 보다 작은 -1 번 도서의 이벤트가 맨 앞에 온다
+        List<Long> pendingIds = bookOutboxRepository
+            .findAllByOrderByBookIdAscBookVersionAscIdAsc(PageRequest.of(0, 2))
+            .stream()
+            .map(BookOutbox::getId)
+            .collect(Collectors.toList());
+
+        assertThat(pendingIds).containsExactly(earlier.getId(), later.getId());
+    }
+
+    @Test
+    void deletesOnlyAcknowledgedRows() {
+        BookOutbox acknowledged = bookOutboxRepository.saveAndFlush(outbox(-1L, 1L));
+        BookOutbox pending = bookOutboxRepository.saveAndFlush(outbox(-1L, 2L));
+
+        assertThat(bookOutboxRepository.deleteByIdIn(List.of(acknowledged.getId()))).isEqualTo(1);
+        em.clear();
+
+        assertThat(bookOutboxRepository.findById(acknowledged.getId())).isEmpty();
+        assertThat(bookOutboxRepository.findById(pending.getId())).isPresent();
+    }
+
+    private static BookOutbox outbox(Long bookId, Long bookVersion) {
+        return new BookOutbox().bookId(bookId).bookVersion(bookVersion).eventType("UPDATE_BOOK").payload("{}").createdDate(Instant.now());
+    }
+}
@@ -0,0 +1,37 @@
+package com.my.book.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.my.book.config.ApplicationProperties;
+import com.my.book.repository.BookRepository;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookAccessTrackerTest {
+
+    private BookAccessTracker bookAccessTracker;
+
+    @BeforeEach
+    public void setUp() {
+        bookAccessTracker = new BookAccessTracker(mock(BookRepository.class), new ApplicationProperties());
+    }
+
+    @Test
+    void keepsMostAccessedBooksInOrder() {
+        bookAccessTracker.record(Arrays.asList(1L, 2L, 2L, 3L, 3L, 3L, 4L, 4L));
+
+        assertThat(bookAccessTracker.mostAccessed(3)).containsExactly(Map.entry(3L, 3L), Map.entry(2L, 2L), Map.entry(4L, 2L));
+    }
+
+    @Test
+    void decayHalvesCountsAndDropsColdBooks() {
+        bookAccessTracker.record(Arrays.asList(1L, 2L, 2L, 2L, 2L));
+
+        bookAccessTracker.decay();
+
+        assertThat(bookAccessTracker.mostAccessed(10)).containsExactly(Map.entry(2L, 2L));
+    }
+}
@@ -0,0 +1,95 @@
+package com.my.book.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.my.book.service.event.BookEntityEvent;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class BookCatalogVersionTest {
+
+    private ITopic<Long> topic;
+
+    private BookCatalogVersion catalogVersion;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        topic = mock(ITopic.class);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<Long>getTopic("book-catalog-version")).thenReturn(topic);
+        catalogVersion = new BookCatalogVersion(hazelcastInstance);
+        catalogVersion.subscribe();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void bumpsAndPublishesOncePerCommittedTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        for (long bookId = 1; bookId <= 1000; bookId++) {
+            catalogVersion.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.STATUS_CHANGED, bookId));
+        }
+        // 커밋 전에는 버전이 바뀌지 않는다
+        assertThat(catalogVersion.get()).isZero();
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(catalogVersion.get()).isEqualTo(1L);
+        verify(topic, times(1)).publish(anyLong());
+        assertThat(TransactionSynchronizationManager.hasResource(catalogVersion)).isFalse();
+    }
+
+    @Test
+    void doesNotBumpOnRollback() {
+        TransactionSynchronizationManager.initSynchronization();
+        catalogVersion.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.DELETED, 1L));
+
+        TransactionSynchronizationManager
+            .getSynchronizations()
+            .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(catalogVersion.get()).isZero();
+        verify(topic, never()).publish(anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ignoresItsOwnMessages() {
+        Member local = mock(Member.class);
+        when(local.localMember()).thenReturn(true);
+        Member remote = mock(Member.class);
+        Message<Long> own = mock(Message.class);
+        when(own.getPublishingMember()).thenReturn(local);
+        Message<Long> other = mock(Message.class);
+        when(other.getPublishingMember()).thenReturn(remote);
+
+        catalogVersion.onMessage(own);
+        assertThat(catalogVersion.get()).isZero();
+
+        catalogVersion.onMessage(other);
+        assertThat(catalogVersion.get()).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,93 @@
+package com.my.book.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.my.book.config.ApplicationProperties;
+import com.my.book.service.criteria.BookCriteria;
+import com.my.book.service.event.BookEntityEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookCountCacheTest {
+
+    private BookCatalogVersion catalogVersion;
+
+    private BookCountCache bookCountCache;
+
+    private BookCriteria filtered;
+
+    @BeforeEach
+    public void setUp() {
+        catalogVersion = new BookCatalogVersion(mock(HazelcastInstance.class));
+        bookCountCache = new BookCountCache(new ApplicationProperties(), catalogVersion);
+        filtered = new BookCriteria();
+        filtered.title().setContains("자바");
+    }
+
+    @Test
+    void countsOncePerNormalizedCriteria() {
+        bookCountCache.get(new BookCriteria(), c -> 10L);
+        BookCountCache.Count count = bookCountCache.get(null, c -> 99L);
+
+        assertThat(count.getValue()).isEqualTo(10L);
+        assertThat(count.isExact()).isTrue();
+    }
+
+    @Test
+    void keyIsNotAffectedByLaterChangesToTheCriteria() {
+        bookCountCache.get(filtered, c -> 3L);
+        filtered.title().setContains("코틀린");
+
+        assertThat(bookCountCache.get(filtered, c -> 7L).getValue()).isEqualTo(7L);
+    }
+
+    @Test
+    void adjustsUnfilteredTotalAndMarksAllTotalsEstimatedAfterAChange() {
+        bookCountCache.get(null, c -> 10L);
+        bookCountCache.get(filtered, c -> 3L);
+
+        change(BookEntityEvent.Action.CREATED, 1L);
+        change(BookEntityEvent.Action.CREATED, 2L);
+        change(BookEntityEvent.Action.DELETED, 3L);
+
+        BookCountCache.Count unfiltered = bookCountCache.get(null, c -> 0L);
+        assertThat(unfiltered.getValue()).isEqualTo(11L);
+        assertThat(unfiltered.isExact()).isFalse();
+        BookCountCache.Count estimated = bookCountCache.get(filtered, c -> 0L);
+        assertThat(estimated.getValue()).isEqualTo(3L);
+        assertThat(estimated.isExact()).isFalse();
+    }
+
+    @Test
+    void marksTotalsEstimatedAfterAChangeOnAnotherInstance() {
+        bookCountCache.get(null, c -> 10L);
+
+        // 다른 인스턴스의 변경은 토픽으로 카탈로그 버전만 올린다
+        catalogVersion.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.CREATED, 1L));
+
+        BookCountCache.Count unfiltered = bookCountCache.get(null, c -> 0L);
+        assertThat(unfiltered.getValue()).isEqualTo(10L);
+        assertThat(unfiltered.isExact()).isFalse();
+    }
+
+    @Test
+    void countTakenWhileABookChangesIsEstimated() {
+        BookCountCache.Count count = bookCountCache.get(
+            null,
+            c -> {
+                change(BookEntityEvent.Action.CREATED, 1L);
+                return 10L;
+            }
+        );
+
+        assertThat(count.isExact()).isFalse();
+    }
+
+    private void change(BookEntityEvent.Action action, Long bookId) {
+        BookEntityEvent event = new BookEntityEvent(action, bookId);
+        catalogVersion.onBookEntityEvent(event);
+        bookCountCache.onBookEntityEvent(event);
+    }
+}
@@ -0,0 +1,72 @@
+package com.my.book.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.my.book.config.ApplicationProperties;
+import com.my.book.service.event.BookEntityEvent;
+import com.my.book.service.event.RemoteBookChangeEvent;
+import com.my.book.web.rest.dto.BookInfoDTO;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookInfoCacheTest {
+
+    private BookInfoCache bookInfoCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        bookInfoCache = new BookInfoCache(new ApplicationProperties());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void loadsOncePerBook() {
+        assertThat(bookInfoCache.get(1L, this::load)).map(BookInfoDTO::getTitle).contains("title-1");
+        assertThat(bookInfoCache.get(1L, this::load)).map(BookInfoDTO::getTitle).contains("title-1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void doesNotCacheMissingBooks() {
+        assertThat(bookInfoCache.get(1L, id -> null)).isEmpty();
+        assertThat(bookInfoCache.get(1L, this::load)).isPresent();
+    }
+
+    @Test
+    void evictsOnUpdateAndDeleteOnly() {
+        bookInfoCache.get(1L, this::load);
+
+        bookInfoCache.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.CREATED, 1L));
+        bookInfoCache.get(1L, this::load);
+        assertThat(loads).hasValue(1);
+
+        bookInfoCache.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.UPDATED, 1L));
+        bookInfoCache.get(1L, this::load);
+        assertThat(loads).hasValue(2);
+
+        bookInfoCache.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.DELETED, 1L));
+        bookInfoCache.get(1L, this::load);
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void evictsBooksChangedOnOtherInstances() {
+        bookInfoCache.get(1L, this::load);
+        bookInfoCache.get(2L, this::load);
+
+        bookInfoCache.onRemoteBookChangeEvent(new RemoteBookChangeEvent(Set.of(1L)));
+        bookInfoCache.get(1L, this::load);
+        bookInfoCache.get(2L, this::load);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    private BookInfoDTO load(Long id) {
+        loads.incrementAndGet();
+        return new BookInfoDTO(id, "title-" + id);
+    }
+}
@@ -0,0 +1,51 @@
+package com.my.book.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.my.book.config.ApplicationProperties;
+import com.my.book.service.criteria.BookCriteria;
+import com.my.book.service.event.BookEntityEvent;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+class BookQueryResultCacheTest {
+
+    private BookCatalogVersion catalogVersion;
+
+    private BookQueryResultCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        catalogVersion = new BookCatalogVersion(mock(HazelcastInstance.class));
+        cache = new BookQueryResultCache(new ApplicationProperties(), catalogVersion);
+    }
+
+    @Test
+    void reusesIdsOfSameCriteriaAndPage() {
+        BookCriteria criteria = new BookCriteria();
+        criteria.title().setContains("java");
+        cache.put(cache.key(criteria, PageRequest.of(0, 20)), Arrays.asList(3L, 1L));
+
+        // 조건 객체가 바뀌어도 캐시된 키에는 영향이 없다
+        BookCriteria same = criteria.copy();
+        criteria.title().setContains("kotlin");
+        assertThat(cache.get(cache.key(same, PageRequest.of(0, 20)))).containsExactly(3L, 1L);
+        assertThat(cache.get(cache.key(criteria, PageRequest.of(0, 20)))).isNull();
+        assertThat(cache.get(cache.key(same, PageRequest.of(1, 20)))).isNull();
+    }
+
+    @Test
+    void forgetsResultsQueriedBeforeAnyBookChange() {
+        BookQueryResultCache.Key before = cache.key(null, PageRequest.of(0, 20));
+
+        catalogVersion.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.STATUS_CHANGED, 1L));
+        // 변경 전에 조회한 결과가 변경 후에 저장되더라도 다시 읽히지 않는다
+        cache.put(before, Arrays.asList(1L, 2L));
+
+        assertThat(cache.get(cache.key(null, PageRequest.of(0, 20)))).isNull();
+    }
+}
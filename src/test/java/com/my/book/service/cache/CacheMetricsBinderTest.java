@@ -0,0 +1,52 @@
+package com.my.book.service.cache;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.core.DistributedObject;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+import java.util.List;
+import java.util.Set;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+class CacheMetricsBinderTest {
+
+    private static final String BOOK_REGION = "com.my.book.domain.Book";
+
+    private static final String QUERY_REGION = "default-query-results-region";
+
+    @Test
+    void bindsTheRegionsBackedByHazelcastMapsWithTheCacheManagerTag() {
+        IMap<?, ?> bookMap = mock(IMap.class);
+        when(bookMap.getName()).thenReturn(BOOK_REGION);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.getDistributedObjects()).thenReturn(List.<DistributedObject>of(bookMap));
+
+        CacheImplementor secondLevelCache = mock(CacheImplementor.class);
+        when(secondLevelCache.getCacheRegionNames()).thenReturn(Set.of(BOOK_REGION, QUERY_REGION));
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class);
+        when(sessionFactory.getCache()).thenReturn(secondLevelCache);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+
+        Cache bookCache = mock(Cache.class);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.getCache(BOOK_REGION)).thenReturn(bookCache);
+        CacheMetricsRegistrar cacheMetricsRegistrar = mock(CacheMetricsRegistrar.class);
+
+        new CacheMetricsBinder(cacheMetricsRegistrar, cacheManager, entityManagerFactory, hazelcastInstance).bindCaches();
+
+        verify(cacheMetricsRegistrar).bindCacheToRegistry(bookCache, CacheMetricsBinder.CACHE_MANAGER_TAG);
+        // 쿼리 캐시 영역은 Hazelcast 맵이 아니므로 빈 맵을 만들지 않는다
+        verify(cacheManager, never()).getCache(QUERY_REGION);
+    }
+}
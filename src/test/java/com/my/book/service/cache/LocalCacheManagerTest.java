@@ -0,0 +1,63 @@
+package com.my.book.service.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.my.book.config.ApplicationProperties;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.metrics.cache.CacheMetricsRegistrar;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+
+class LocalCacheManagerTest {
+
+    private BookInfoCache bookInfoCache;
+
+    private LocalCacheManager localCacheManager;
+
+    @BeforeEach
+    public void setUp() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        BookCatalogVersion catalogVersion = new BookCatalogVersion(mock(HazelcastInstance.class));
+        bookInfoCache = new BookInfoCache(applicationProperties);
+        localCacheManager =
+            new LocalCacheManager(
+                bookInfoCache,
+                new BookCountCache(applicationProperties, catalogVersion),
+                new BookQueryResultCache(applicationProperties, catalogVersion)
+            );
+        localCacheManager.afterPropertiesSet();
+    }
+
+    @Test
+    void listsTheLocalCaches() {
+        assertThat(localCacheManager.getCacheNames()).containsExactlyInAnyOrder("bookInfo", "bookCount", "bookQueryResult");
+        assertThat(localCacheManager.getCache("bookInfo").getNativeCache()).isSameAs(bookInfoCache.nativeCache());
+    }
+
+    @Test
+    void localCacheMetricsHaveTheTagsOfTheOtherCaches() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CacheMetricsRegistrar registrar = new CacheMetricsRegistrar(registry, List.of(new CaffeineCacheMeterBinderProvider()));
+
+        // 기동 시 cache metrics 자동 설정이 localCacheManager 빈의 캐시를 묶는 방식
+        for (String name : localCacheManager.getCacheNames()) {
+            assertThat(registrar.bindCacheToRegistry(localCacheManager.getCache(name), Tag.of("cacheManager", "local"))).isTrue();
+        }
+
+        Collection<Meter> sizes = registry.find("cache.size").meters();
+        assertThat(sizes).hasSize(3);
+        // Prometheus 는 같은 이름의 meter 가 같은 태그 키를 갖도록 요구한다
+        for (Meter size : sizes) {
+            assertThat(size.getId().getTags())
+                .extracting(Tag::getKey)
+                .containsExactlyInAnyOrder("name", CacheMetricsBinder.CACHE_MANAGER_TAG.getKey());
+        }
+    }
+}
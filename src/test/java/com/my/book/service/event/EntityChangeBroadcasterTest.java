@@ -0,0 +1,90 @@
+package com.my.book.service.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hazelcast.cluster.Member;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.topic.ITopic;
+import com.hazelcast.topic.Message;
+import com.hazelcast.topic.MessageListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class EntityChangeBroadcasterTest {
+
+    private ITopic<long[]> bookTopic;
+
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private EntityChangeBroadcaster broadcaster;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        bookTopic = mock(ITopic.class);
+        HazelcastInstance hazelcastInstance = mock(HazelcastInstance.class);
+        when(hazelcastInstance.<long[]>getTopic("book-changes")).thenReturn(bookTopic);
+        when(hazelcastInstance.<long[]>getTopic("in-stock-book-changes")).thenReturn(mock(ITopic.class));
+        applicationEventPublisher = mock(ApplicationEventPublisher.class);
+        broadcaster = new EntityChangeBroadcaster(hazelcastInstance, applicationEventPublisher);
+        broadcaster.subscribe();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publishesTheIdsChangedInATransactionOnceAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        broadcaster.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.DELETED, 1L));
+        broadcaster.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.DELETED, 2L));
+        // 재고 상태 변경은 알리지 않는다
+        broadcaster.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.STATUS_CHANGED, 3L));
+        verify(bookTopic, never()).publish(any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        ArgumentCaptor<long[]> ids = ArgumentCaptor.forClass(long[].class);
+        verify(bookTopic).publish(ids.capture());
+        assertThat(ids.getValue()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishesRemoteChangesOnly() {
+        ArgumentCaptor<MessageListener<long[]>> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(bookTopic).addMessageListener(listener.capture());
+        Member local = mock(Member.class);
+        when(local.localMember()).thenReturn(true);
+        Message<long[]> own = mock(Message.class);
+        when(own.getPublishingMember()).thenReturn(local);
+        Message<long[]> remote = mock(Message.class);
+        when(remote.getPublishingMember()).thenReturn(mock(Member.class));
+        when(remote.getMessageObject()).thenReturn(new long[] { 4L, 5L });
+
+        listener.getValue().onMessage(own);
+        verify(applicationEventPublisher, never()).publishEvent(any(Object.class));
+
+        listener.getValue().onMessage(remote);
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(applicationEventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue()).isInstanceOfSatisfying(
+            RemoteBookChangeEvent.class,
+            e -> assertThat(e.getBookIds()).containsExactly(4L, 5L)
+        );
+    }
+}
@@ -0,0 +1,142 @@
+package com.my.book.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.my.book.adaptor.BookEventCodec;
+import com.my.book.config.ApplicationProperties;
+import com.my.book.domain.Book;
+import com.my.book.domain.enumeration.BookStatus;
+import com.my.book.domain.event.StockChanged;
+import com.my.book.repository.BookOutboxRepository;
+import com.my.book.repository.BookRepository;
+import com.my.book.service.InStockBookService;
+import com.my.book.service.cache.BookAccessTracker;
+import com.my.book.service.cache.BookInfoCache;
+import com.my.book.service.search.BookIsbnIndex;
+import com.my.book.web.rest.dto.BookInfoDTO;
+import com.my.book.web.rest.mapper.BookMapper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+
+class BookServiceImplTest {
+
+    private BookRepository bookRepository;
+
+    private InStockBookService inStockBookService;
+
+    private BookOutboxRepository bookOutboxRepository;
+
+    private BookIsbnIndex bookIsbnIndex;
+
+    private BookServiceImpl bookService;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository = mock(BookRepository.class);
+        inStockBookService = mock(InStockBookService.class);
+        bookOutboxRepository = mock(BookOutboxRepository.class);
+        bookIsbnIndex = mock(BookIsbnIndex.class);
+        bookService =
+            new BookServiceImpl(
+                bookRepository,
+                mock(BookMapper.class),
+                inStockBookService,
+                bookOutboxRepository,
+                mock(BookEventCodec.class),
+                new BookInfoCache(new ApplicationProperties()),
+                mock(BookAccessTracker.class),
+                bookIsbnIndex,
+                mock(ApplicationEventPublisher.class)
+            );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processChangeBookStatesKeepsLastStatusPerBook() {
+        when(bookRepository.updateBookStatuses(anyMap())).thenReturn(2);
+
+        bookService.processChangeBookStates(
+            Arrays.asList(
+                stockChanged(1L, "UNAVAILABLE"),
+                stockChanged(2L, "UNAVAILABLE"),
+                stockChanged(1L, "AVAILABLE"),
+                stockChanged(3L, "LOST"),
+                stockChanged(null, "AVAILABLE")
+            )
+        );
+
+        ArgumentCaptor<Map<Long, BookStatus>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(bookRepository).updateBookStatuses(captor.capture());
+        assertThat(captor.getValue()).containsExactly(Map.entry(1L, BookStatus.AVAILABLE), Map.entry(2L, BookStatus.UNAVAILABLE));
+    }
+
+    @Test
+    void findBookInfosKeepsRequestOrderAndLoadsMissesOnce() {
+        when(bookRepository.findBookInfoByIdIn(anyCollection()))
+            .thenReturn(Arrays.asList(new BookInfoDTO(3L, "C"), new BookInfoDTO(1L, "A")))
+            .thenReturn(Collections.emptyList());
+
+        assertThat(bookService.findBookInfos(Arrays.asList(3L, 2L, 1L, 3L)))
+            .extracting(BookInfoDTO::getId)
+            .containsExactly(3L, 1L);
+        // 두 번째 조회는 캐시에 없는 2번 도서만 다시 조회한다
+        assertThat(bookService.findBookInfos(Arrays.asList(1L, 2L, 3L))).extracting(BookInfoDTO::getTitle).containsExactly("A", "C");
+        verify(bookRepository, times(2)).findBookInfoByIdIn(anyCollection());
+    }
+
+    @Test
+    void registerNewBooksFailsWhenAnInStockBookIsMissing() {
+        Map<Long, Book> booksByInStockId = new LinkedHashMap<>();
+        booksByInStockId.put(10L, new Book().title("A"));
+        booksByInStockId.put(11L, new Book().title("B"));
+        when(bookRepository.saveAll(anyCollection())).thenReturn(new ArrayList<>(booksByInStockId.values()));
+        when(inStockBookService.deleteAll(anyCollection())).thenReturn(1);
+
+        // 트랜잭션이 롤백되도록 예외를 던지고 이벤트는 기록하지 않는다
+        assertThatThrownBy(() -> bookService.registerNewBooks(booksByInStockId)).isInstanceOf(EmptyResultDataAccessException.class);
+        verify(bookOutboxRepository, never()).saveAll(anyCollection());
+    }
+
+    @Test
+    void findByIsbnTrustsAMissFromTheLoadedIndex() {
+        when(bookIsbnIndex.find(9788966262281L)).thenReturn(BookIsbnIndex.NONE);
+
+        assertThat(bookService.findByIsbn(9788966262281L)).isEmpty();
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void findByIsbnLooksUpAnUnknownIsbnInTheDatabase() {
+        // 색인을 적재하는 중이거나 여러 도서가 같은 isbn 을 가진다
+        when(bookIsbnIndex.find(9788966262281L)).thenReturn(BookIsbnIndex.UNKNOWN);
+        Book book = new Book().id(1L).isbn(9788966262281L);
+        when(bookRepository.findFirstByIsbnOrderByIdAsc(9788966262281L)).thenReturn(Optional.of(book));
+
+        assertThat(bookService.findByIsbn(9788966262281L)).contains(book);
+    }
+
+    private static StockChanged stockChanged(Long bookId, String bookStatus) {
+        StockChanged stockChanged = new StockChanged();
+        stockChanged.setBookId(bookId);
+        stockChanged.setBookStatus(bookStatus);
+        return stockChanged;
+    }
+}
@@ -0,0 +1,42 @@
+package com.my.book.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsQuotedFieldsAcrossLines() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(
+            new StringReader("title,author\r\n\"Clean Code\",Robert Martin\n\n\"Say \"\"hi\"\", \nagain\",\n")
+        );
+
+        assertThat(reader.readRecord()).containsExactly("title", "author");
+        assertThat(reader.getRecordLine()).isEqualTo(1);
+        assertThat(reader.readRecord()).containsExactly("Clean Code", "Robert Martin");
+        assertThat(reader.getRecordLine()).isEqualTo(2);
+        // 빈 줄은 건너뛰고, 따옴표 안의 쉼표, 줄바꿈, 이중 따옴표는 값으로 읽는다
+        assertThat(reader.readRecord()).containsExactly("Say \"hi\", \nagain", "");
+        assertThat(reader.getRecordLine()).isEqualTo(4);
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    void readsLastRecordWithoutLineBreak() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b"));
+
+        assertThat(reader.readRecord()).containsExactly("a", "b");
+        assertThat(reader.readRecord()).isNull();
+    }
+
+    @Test
+    void rejectsUnclosedQuote() {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"Clean Code,Robert Martin\n"));
+
+        assertThatThrownBy(reader::readRecord).isInstanceOf(IllegalArgumentException.class);
+    }
+}
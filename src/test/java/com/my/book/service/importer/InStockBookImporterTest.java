@@ -0,0 +1,89 @@
+package com.my.book.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.my.book.domain.InStockBook;
+import com.my.book.service.InStockBookService;
+import com.my.book.web.rest.dto.InStockBookDTO;
+import com.my.book.web.rest.mapper.InStockBookMapper;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+class InStockBookImporterTest {
+
+    private final List<String> saved = new ArrayList<>();
+
+    private final Map<Long, String> errors = new TreeMap<>();
+
+    private InStockBookImporter importer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        InStockBookService inStockBookService = mock(InStockBookService.class);
+        // "너무 긴 제목" 이 들어간 트랜잭션은 실패한다
+        when(inStockBookService.saveAll(anyList()))
+            .thenAnswer(
+                invocation -> {
+                    List<InStockBook> inStockBooks = invocation.getArgument(0);
+                    if (inStockBooks.stream().anyMatch(inStockBook -> inStockBook.getTitle().startsWith("너무 긴 제목"))) {
+                        throw new DataIntegrityViolationException("Value too long for column title");
+                    }
+                    saved.addAll(inStockBooks.stream().map(InStockBook::getTitle).collect(Collectors.toList()));
+                    return inStockBooks;
+                }
+            );
+        InStockBookMapper inStockBookMapper = mock(InStockBookMapper.class);
+        when(inStockBookMapper.toEntity(any(InStockBookDTO.class)))
+            .thenAnswer(invocation -> new InStockBook().title(invocation.<InStockBookDTO>getArgument(0).getTitle()));
+        importer = new InStockBookImporter(inStockBookService, inStockBookMapper, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    void reportsOnlyTheRowsOfAFailedChunkThatCannotBeSaved() throws IOException {
+        String csv = "title,author\n자바의 정석,남궁성\n너무 긴 제목,김영한\n객체지향의 사실과 오해,조영호\n";
+
+        long imported = importer.importBooks(new StringReader(csv), InStockBookImporter.Format.CSV, listener());
+
+        assertThat(imported).isEqualTo(2);
+        assertThat(saved).containsExactlyInAnyOrder("자바의 정석", "객체지향의 사실과 오해");
+        assertThat(errors).containsOnlyKeys(3L);
+        assertThat(errors.get(3L)).startsWith("Not saved: Value too long");
+    }
+
+    @Test
+    void savesTheRowsReadBeforeAnUnclosedQuote() {
+        String csv = "title,author\n자바의 정석,남궁성\n\"객체지향의 사실과 오해,조영호\n";
+
+        assertThatThrownBy(() -> importer.importBooks(new StringReader(csv), InStockBookImporter.Format.CSV, listener()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("line 3");
+        assertThat(saved).containsExactly("자바의 정석");
+    }
+
+    private InStockBookImporter.Listener listener() {
+        return new InStockBookImporter.Listener() {
+            @Override
+            public void onError(long line, String message) {
+                errors.put(line, message);
+            }
+
+            @Override
+            public void onProgress(long processed, long imported, long failed) {}
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.my.book.service.keyset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.my.book.web.rest.dto.BookDTO;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+class KeysetCursorTest {
+
+    private static final Set<String> SORTABLE = Set.of("id", "title");
+
+    @Test
+    void roundTripsSortKeyAndId() {
+        BookDTO last = new BookDTO();
+        last.setId(42L);
+        last.setTitle("a|b");
+
+        KeysetCursor cursor = KeysetCursor.first(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "title")), SORTABLE).after(last);
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode(), SORTABLE);
+
+        assertThat(decoded.getProperty()).isEqualTo("title");
+        assertThat(decoded.getDirection()).isEqualTo(Sort.Direction.DESC);
+        assertThat(decoded.getValue()).isEqualTo("a|b");
+        assertThat(decoded.getId()).isEqualTo(42L);
+        assertThat(decoded.isFirst()).isFalse();
+    }
+
+    @Test
+    void defaultsToIdAscending() {
+        KeysetCursor cursor = KeysetCursor.first(PageRequest.of(0, 20), SORTABLE);
+
+        assertThat(cursor.getProperty()).isEqualTo("id");
+        assertThat(cursor.getDirection()).isEqualTo(Sort.Direction.ASC);
+        assertThat(cursor.isFirst()).isTrue();
+    }
+
+    @Test
+    void rejectsUnsupportedSortAndMalformedTokens() {
+        assertThatThrownBy(() -> KeysetCursor.first(PageRequest.of(0, 20, Sort.by("description")), SORTABLE))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor", SORTABLE)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,37 @@
+package com.my.book.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class BkTreeTest {
+
+    @Test
+    void computesBoundedLevenshteinDistance() {
+        assertThat(BkTree.distance("kitten", "sitting", 10)).isEqualTo(3);
+        assertThat(BkTree.distance("java", "java", 0)).isZero();
+        assertThat(BkTree.distance("", "abc", 10)).isEqualTo(3);
+        // 한도를 넘으면 한도보다 큰 값만 보장한다
+        assertThat(BkTree.distance("kitten", "sitting", 1)).isGreaterThan(1);
+        assertThat(BkTree.distance("a", "abcdef", 2)).isGreaterThan(2);
+    }
+
+    @Test
+    void findsTermsWithinDistance() {
+        BkTree tree = new BkTree();
+        for (String term : new String[] { "java", "jaba", "lava", "javascript", "kotlin", "scala", "java" }) {
+            tree.add(term);
+        }
+        assertThat(tree.size()).isEqualTo(6);
+
+        Map<String, Integer> found = new HashMap<>();
+        tree.search("jvaa", 2, found::put);
+        assertThat(found).containsOnly(Map.entry("java", 2), Map.entry("jaba", 2));
+
+        found.clear();
+        tree.search("kotlim", 1, found::put);
+        assertThat(found).containsOnly(Map.entry("kotlin", 1));
+    }
+}
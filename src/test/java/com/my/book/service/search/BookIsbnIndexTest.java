@@ -0,0 +1,93 @@
+package com.my.book.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.my.book.domain.Book;
+import com.my.book.repository.BookRepository;
+import com.my.book.service.event.BookEntityEvent;
+import com.my.book.service.event.RemoteBookChangeEvent;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookIsbnIndexTest {
+
+    private static final long ISBN = 9788966262281L;
+
+    private static final long OTHER_ISBN = 9788994492032L;
+
+    private BookRepository bookRepository;
+
+    private BookIsbnIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.findIdAndIsbnByIdIn(anyCollection())).thenReturn(Collections.emptyList());
+        index = new BookIsbnIndex(bookRepository);
+    }
+
+    @Test
+    void findsLoadedIsbnsAndMarksSharedOnes() {
+        assertThat(index.find(ISBN)).isEqualTo(BookIsbnIndex.UNKNOWN);
+        givenRows(new Object[] { 1L, ISBN }, new Object[] { 2L, OTHER_ISBN }, new Object[] { 3L, OTHER_ISBN });
+
+        index.load();
+
+        assertThat(index.find(ISBN)).isEqualTo(1L);
+        assertThat(index.find(OTHER_ISBN)).isEqualTo(BookIsbnIndex.UNKNOWN);
+        assertThat(index.find(9780000000000L)).isEqualTo(BookIsbnIndex.NONE);
+    }
+
+    @Test
+    void followsCommittedChanges() {
+        givenRows(new Object[] { 1L, ISBN });
+        index.load();
+
+        index.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.UPDATED, new Book().id(1L).isbn(OTHER_ISBN)));
+        assertThat(index.find(ISBN)).isEqualTo(BookIsbnIndex.NONE);
+        assertThat(index.find(OTHER_ISBN)).isEqualTo(1L);
+
+        index.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.DELETED, 1L));
+        assertThat(index.find(OTHER_ISBN)).isEqualTo(BookIsbnIndex.NONE);
+    }
+
+    @Test
+    void followsChangesFromOtherInstances() {
+        givenRows(new Object[] { 1L, ISBN });
+        index.load();
+        when(bookRepository.findIdAndIsbnByIdIn(Set.of(1L, 2L))).thenReturn(List.<Object[]>of(new Object[] { 2L, ISBN }));
+
+        // 1번 도서는 삭제되고 2번 도서가 같은 isbn 으로 생성되었다
+        index.onRemoteBookChangeEvent(new RemoteBookChangeEvent(Set.of(1L, 2L)));
+
+        assertThat(index.find(ISBN)).isEqualTo(2L);
+    }
+
+    @Test
+    void doesNotResurrectABookDeletedDuringTheLoad() {
+        when(bookRepository.findIdAndIsbnByIdGreaterThan(eq(0L), any()))
+            .thenAnswer(
+                invocation -> {
+                    // 삭제가 커밋되기 전에 읽은 행
+                    index.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.DELETED, 1L));
+                    return Collections.singletonList(new Object[] { 1L, ISBN });
+                }
+            );
+
+        index.load();
+
+        assertThat(index.find(ISBN)).isEqualTo(BookIsbnIndex.NONE);
+    }
+
+    private void givenRows(Object[]... rows) {
+        when(bookRepository.findIdAndIsbnByIdGreaterThan(eq(0L), any())).thenReturn(List.of(rows));
+    }
+}
@@ -0,0 +1,123 @@
+package com.my.book.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.my.book.domain.Book;
+import com.my.book.repository.BookRepository;
+import com.my.book.service.event.BookEntityEvent;
+import com.my.book.service.event.RemoteBookChangeEvent;
+import com.my.book.web.rest.dto.BookSuggestionDTO;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BookSuggestIndexTest {
+
+    private BookRepository bookRepository;
+
+    private BookSuggestIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.findAccessCounts()).thenReturn(Collections.emptyMap());
+        when(bookRepository.findIdTitleAndAuthorByIdIn(anyCollection())).thenReturn(Collections.emptyList());
+        index = new BookSuggestIndex(bookRepository);
+    }
+
+    @Test
+    void ranksBySavedAccessCounts() {
+        givenBooks(row(1L, "자바의 정석", "남궁성"), row(2L, "자바 ORM 표준 JPA 프로그래밍", "김영한"));
+        when(bookRepository.findAccessCounts()).thenReturn(Map.of(2L, 10L));
+
+        index.load();
+
+        assertThat(titles("자바")).containsExactly("자바 ORM 표준 JPA 프로그래밍", "자바의 정석");
+
+        // 저장된 인기도가 바뀌면 다음 재구성에서 반영된다
+        when(bookRepository.findAccessCounts()).thenReturn(Map.of(1L, 20L, 2L, 10L));
+        index.rebuildIfChanged();
+
+        assertThat(titles("자바")).containsExactly("자바의 정석", "자바 ORM 표준 JPA 프로그래밍");
+    }
+
+    @Test
+    void doesNotResurrectABookDeletedDuringTheLoad() {
+        when(bookRepository.findIdTitleAndAuthorByIdGreaterThan(eq(0L), any()))
+            .thenAnswer(
+                invocation -> {
+                    // 삭제가 커밋되기 전에 읽은 행
+                    index.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.DELETED, 1L));
+                    return List.<Object[]>of(row(1L, "자바의 정석", "남궁성"));
+                }
+            );
+
+        index.load();
+
+        assertThat(titles("자바")).isEmpty();
+    }
+
+    @Test
+    void appliesLocalChangesWithoutRebuilding() {
+        givenBooks(row(1L, "자바의 정석", "남궁성"), row(2L, "자바 ORM 표준 JPA 프로그래밍", "김영한"));
+        when(bookRepository.findAccessCounts()).thenReturn(Map.of(1L, 5L, 3L, 10L));
+        index.load();
+
+        index.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.CREATED, new Book().id(3L).title("자바 성능 튜닝").author("찰리 헌트")));
+        index.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.UPDATED, new Book().id(1L).title("코틀린 인 액션").author("남궁성")));
+        index.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.DELETED, 2L));
+
+        assertThat(titles("자바")).containsExactly("자바 성능 튜닝");
+        assertThat(titles("코틀린")).containsExactly("코틀린 인 액션");
+        // 중간 단어로도 찾는다
+        assertThat(titles("튜닝")).containsExactly("자바 성능 튜닝");
+    }
+
+    @Test
+    void keepsASuggestionStillHeldByAnotherBook() {
+        givenBooks(row(1L, "자바의 정석", "남궁성"), row(2L, "자바의 정석", "남궁성"));
+        index.load();
+
+        index.onBookEntityEvent(new BookEntityEvent(BookEntityEvent.Action.DELETED, 1L));
+
+        assertThat(titles("자바")).containsExactly("자바의 정석");
+    }
+
+    @Test
+    void followsChangesFromOtherInstances() {
+        givenBooks(row(1L, "자바의 정석", "남궁성"));
+        index.load();
+        when(bookRepository.findIdTitleAndAuthorByIdIn(Set.of(1L))).thenReturn(List.<Object[]>of(row(1L, "코틀린 인 액션", "드미트리 제메로프")));
+
+        index.onRemoteBookChangeEvent(new RemoteBookChangeEvent(Set.of(1L)));
+
+        assertThat(titles("자바")).isEmpty();
+        assertThat(titles("코틀린")).containsExactly("코틀린 인 액션");
+    }
+
+    private void givenBooks(Object[]... rows) {
+        when(bookRepository.findIdTitleAndAuthorByIdGreaterThan(eq(0L), any())).thenReturn(List.of(rows));
+    }
+
+    private static Object[] row(Long id, String title, String author) {
+        return new Object[] { id, title, author };
+    }
+
+    private List<String> titles(String prefix) {
+        return index
+            .suggest(prefix, 10)
+            .stream()
+            .filter(suggestion -> suggestion.getType() == BookSuggestionDTO.Type.TITLE)
+            .map(BookSuggestionDTO::getText)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,64 @@
+package com.my.book.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FuzzyIndexTest {
+
+    private FuzzyIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new FuzzyIndex();
+        index.put(1L, "Effective Java", "Joshua Bloch");
+        index.put(2L, "Java Concurrency in Practice", "Brian Goetz");
+        index.put(3L, "Clean Code", "Robert Martin");
+    }
+
+    @Test
+    void toleratesTyposInEveryTerm() {
+        assertThat(index.search("efective jav", 2, 10)).containsExactly(1L);
+        assertThat(index.search("concurency", 2, 10)).containsExactly(2L);
+        assertThat(index.search("efective jav", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void ranksFewerEditsFirst() {
+        index.put(4L, "Java Puzzlers", "Joshua Bloch");
+        // 1, 4 모두 "javs" 에서 1 편집이므로 id 순서, "puzlers" 까지 주면 4 만 남는다
+        assertThat(index.search("javs bloch", 2, 10)).containsExactly(1L, 4L);
+        assertThat(index.search("javs bloch puzlers", 2, 10)).containsExactly(4L);
+    }
+
+    @Test
+    void allowsNoEditsForShortTerms() {
+        index.put(4L, "C", "K&R");
+        assertThat(index.search("d", 2, 10)).isEmpty();
+        assertThat(index.search("c", 2, 10)).containsExactly(4L);
+    }
+
+    @Test
+    void forgetsRemovedAndReplacedDocuments() {
+        index.remove(1L);
+        index.put(3L, "Refactoring", "Martin Fowler");
+        assertThat(index.search("efective", 2, 10)).isEmpty();
+        assertThat(index.search("clen", 2, 10)).isEmpty();
+        assertThat(index.search("refactorin", 2, 10)).containsExactly(3L);
+    }
+
+    @Test
+    void dropsUnusedTermsFromTheDictionary() {
+        for (long i = 0; i < 5000; i++) {
+            index.put(4L, "Edition " + i, "Anonymous");
+        }
+        // 교체될 때마다 쓰지 않게 된 단어가 쌓이지 않는다
+        assertThat(index.dictionarySize()).isLessThan(1024);
+        assertThat(index.search("edition 4999", 0, 10)).containsExactly(4L);
+        assertThat(index.search("edition 17", 0, 10)).isEmpty();
+
+        index.clear();
+        assertThat(index.dictionarySize()).isZero();
+    }
+}
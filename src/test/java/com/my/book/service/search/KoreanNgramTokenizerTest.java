@@ -0,0 +1,43 @@
+package com.my.book.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.text.Normalizer;
+import org.junit.jupiter.api.Test;
+
+class KoreanNgramTokenizerTest {
+
+    private final KoreanNgramTokenizer tokenizer = new KoreanNgramTokenizer();
+
+    @Test
+    void splitsHangulIntoBigramsAndKeepsOtherWords() {
+        assertThat(tokenizer.tokenize("자바 ORM 표준 JPA 프로그래밍")).containsExactly("자바", "orm", "표준", "jpa", "프로", "로그", "그래", "래밍");
+        assertThat(tokenizer.tokenize("김영한")).containsExactly("김영", "영한");
+        assertThat(tokenizer.tokenize("책")).containsExactly("책");
+    }
+
+    @Test
+    void splitsMixedScriptRuns() {
+        assertThat(tokenizer.tokenize("Java의정석")).containsExactly("java", "의정", "정석");
+    }
+
+    @Test
+    void normalizesDecomposedJamoAndFullWidthCharacters() {
+        String decomposed = Normalizer.normalize("프로그래밍", Normalizer.Form.NFD);
+
+        assertThat(tokenizer.tokenize(decomposed)).containsExactly("프로", "로그", "그래", "래밍");
+        assertThat(tokenizer.tokenize("ＪＰＡ")).containsExactly("jpa");
+    }
+
+    @Test
+    void infixGramsOfAQueryAreContainedInTheDocumentGrams() {
+        assertThat(tokenizer.tokenize("객체지향프로그래밍")).containsAll(tokenizer.infixGrams("지향프로"));
+        assertThat(tokenizer.infixGrams("JPA 프로")).containsExactly("프로");
+        assertThat(tokenizer.infixGrams("JPA")).isEmpty();
+    }
+
+    @Test
+    void dropsUncomposedJamo() {
+        assertThat(tokenizer.tokenize("프로ㄱ")).containsExactly("프로");
+    }
+}
@@ -0,0 +1,56 @@
+package com.my.book.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class LoadTrackerTest {
+
+    private final LoadTracker loadTracker = new LoadTracker();
+
+    private final List<Set<Long>> reloads = new ArrayList<>();
+
+    @Test
+    void reloadsIdsChangedDuringTheLoad() {
+        loadTracker.changed(1L);
+        loadTracker.start();
+        loadTracker.changed(2L);
+        loadTracker.changed(3L);
+
+        loadTracker.finish(reloads::add);
+
+        assertThat(reloads).containsExactly(Set.of(2L, 3L));
+    }
+
+    @Test
+    void reloadsAgainIdsChangedWhileReloading() {
+        loadTracker.start();
+        loadTracker.changed(1L);
+
+        loadTracker.finish(
+            ids -> {
+                reloads.add(ids);
+                if (reloads.size() == 1) {
+                    loadTracker.changed(2L);
+                }
+            }
+        );
+
+        assertThat(reloads).containsExactly(Set.of(1L), Set.of(2L));
+    }
+
+    @Test
+    void stopsTrackingOnceFinished() {
+        loadTracker.start();
+        loadTracker.finish(reloads::add);
+        loadTracker.changed(1L);
+
+        loadTracker.start();
+        loadTracker.finish(reloads::add);
+
+        assertThat(reloads).isEmpty();
+    }
+}
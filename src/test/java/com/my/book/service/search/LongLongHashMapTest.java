@@ -0,0 +1,52 @@
+package com.my.book.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class LongLongHashMapTest {
+
+    @Test
+    void putsGetsAndRemoves() {
+        LongLongHashMap map = new LongLongHashMap();
+        map.put(9788966262281L, 1L);
+        map.put(0L, 2L);
+        map.put(9788966262281L, 3L);
+
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get(9788966262281L, -1L)).isEqualTo(3L);
+        assertThat(map.get(0L, -1L)).isEqualTo(2L);
+        assertThat(map.get(42L, -1L)).isEqualTo(-1L);
+
+        assertThat(map.remove(0L)).isTrue();
+        assertThat(map.remove(0L)).isFalse();
+        assertThat(map.containsKey(0L)).isFalse();
+        assertThat(map.remove(9788966262281L)).isTrue();
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void behavesLikeHashMapUnderRandomOperations() {
+        // 작은 키 범위로 충돌, 재해시, 삭제 후 당기기를 모두 거친다
+        Random random = new Random(42);
+        LongLongHashMap map = new LongLongHashMap(4);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(5_000) - 100;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key) != null);
+            } else {
+                long value = random.nextLong();
+                map.put(key, value);
+                expected.put(key, value);
+            }
+        }
+        assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = -100; key < 4_900; key++) {
+            assertThat(map.get(key, Long.MIN_VALUE)).isEqualTo(expected.getOrDefault(key, Long.MIN_VALUE));
+        }
+    }
+}
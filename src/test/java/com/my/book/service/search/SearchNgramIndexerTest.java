@@ -0,0 +1,128 @@
+package com.my.book.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.my.book.domain.SearchNgram;
+import com.my.book.repository.BookRepository;
+import com.my.book.repository.InStockBookRepository;
+import com.my.book.repository.SearchNgramRepository;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class SearchNgramIndexerTest {
+
+    private SearchNgramRepository searchNgramRepository;
+
+    private BookRepository bookRepository;
+
+    private SearchNgramIndexer indexer;
+
+    @BeforeEach
+    public void setUp() {
+        searchNgramRepository = mock(SearchNgramRepository.class);
+        bookRepository = mock(BookRepository.class);
+        InStockBookRepository inStockBookRepository = mock(InStockBookRepository.class);
+        when(bookRepository.findIdTitleAndAuthorByIdGreaterThan(eq(0L), any()))
+            .thenReturn(
+                List.of(
+                    new Object[] { 1L, "자바의 정석", "남궁성" },
+                    new Object[] { 2L, "객체지향의 사실과 오해", "조영호" },
+                    // 한글 bigram 이 없어 기록할 n-gram 이 없다
+                    new Object[] { 3L, "Clean Code", "Robert C. Martin" }
+                )
+            );
+        when(inStockBookRepository.findIdTitleAndAuthorByIdGreaterThan(anyLong(), any())).thenReturn(Collections.emptyList());
+        when(searchNgramRepository.findIndexedEntityIds(any(), anyCollection())).thenReturn(Collections.emptySet());
+        when(searchNgramRepository.findBackfilledEntityTypes()).thenReturn(EnumSet.noneOf(SearchNgram.EntityType.class));
+        indexer =
+            new SearchNgramIndexer(
+                searchNgramRepository,
+                bookRepository,
+                inStockBookRepository,
+                mock(PlatformTransactionManager.class),
+                Runnable::run
+            );
+    }
+
+    @Test
+    void completesWhenEveryRowIsBackfilled() {
+        assertThat(indexer.isComplete(SearchNgram.EntityType.BOOK)).isFalse();
+
+        indexer.onApplicationReady();
+
+        assertThat(indexer.isComplete(SearchNgram.EntityType.BOOK)).isTrue();
+        assertThat(indexer.isComplete(SearchNgram.EntityType.IN_STOCK_BOOK)).isTrue();
+        verify(searchNgramRepository).markBackfilled(SearchNgram.EntityType.BOOK);
+        // n-gram 이 없는 3번 도서는 기록하지 않는다
+        verify(searchNgramRepository)
+            .insertMissingGrams(
+                SearchNgram.EntityType.BOOK,
+                Map.of(1L, grams("자바의 정석", "남궁성"), 2L, grams("객체지향의 사실과 오해", "조영호"))
+            );
+    }
+
+    @Test
+    void doesNotScanAgainOnceBackfilled() {
+        when(searchNgramRepository.findBackfilledEntityTypes()).thenReturn(EnumSet.allOf(SearchNgram.EntityType.class));
+
+        indexer.onApplicationReady();
+
+        assertThat(indexer.isComplete(SearchNgram.EntityType.BOOK)).isTrue();
+        verify(bookRepository, never()).findIdTitleAndAuthorByIdGreaterThan(anyLong(), any());
+    }
+
+    @Test
+    void retriesEachRowOfAFailedBatchAndStaysIncompleteOnFailure() {
+        // 배치 전체와 2번 도서만 실패한다
+        doAnswer(
+                invocation -> {
+                    Map<Long, ?> grams = invocation.getArgument(1);
+                    if (grams.size() > 1 || grams.containsKey(2L)) {
+                        throw new DataIntegrityViolationException("duplicate");
+                    }
+                    return null;
+                }
+            )
+            .when(searchNgramRepository)
+            .insertMissingGrams(eq(SearchNgram.EntityType.BOOK), anyMap());
+
+        indexer.onApplicationReady();
+
+        verify(searchNgramRepository).insertMissingGrams(SearchNgram.EntityType.BOOK, Map.of(1L, grams("자바의 정석", "남궁성")));
+        assertThat(indexer.isComplete(SearchNgram.EntityType.BOOK)).isFalse();
+        assertThat(indexer.isComplete(SearchNgram.EntityType.IN_STOCK_BOOK)).isTrue();
+        verify(searchNgramRepository, never()).markBackfilled(SearchNgram.EntityType.BOOK);
+
+        // 다음 시도에서 모두 기록되면 완성된다
+        doAnswer(invocation -> null).when(searchNgramRepository).insertMissingGrams(eq(SearchNgram.EntityType.BOOK), anyMap());
+        indexer.retryBackfill();
+
+        assertThat(indexer.isComplete(SearchNgram.EntityType.BOOK)).isTrue();
+    }
+
+    private static Map<SearchNgram.FieldName, Set<String>> grams(String title, String author) {
+        return Map.of(
+            SearchNgram.FieldName.TITLE,
+            NgramSpecifications.grams(title),
+            SearchNgram.FieldName.AUTHOR,
+            NgramSpecifications.grams(author)
+        );
+    }
+}
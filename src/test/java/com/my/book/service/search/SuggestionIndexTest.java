@@ -0,0 +1,49 @@
+package com.my.book.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class SuggestionIndexTest {
+
+    @Test
+    void returnsMostPopularKeysWithPrefix() {
+        SuggestionIndex<String> index = new SuggestionIndex.Builder<String>()
+            .add("Java Puzzlers", "Java Puzzlers", 3)
+            .add("Effective Java", "Effective Java", 10)
+            .add("Java Concurrency in Practice", "Java Concurrency in Practice", 7)
+            .add("JavaScript", "JavaScript", 1)
+            .add("Clean Code", "Clean Code", 100)
+            .build();
+
+        assertThat(index.suggest("jav", 10)).containsExactly("Java Concurrency in Practice", "Java Puzzlers", "JavaScript");
+        assertThat(index.suggest("JAVA ", 2)).containsExactly("Java Concurrency in Practice", "Java Puzzlers");
+        assertThat(index.suggest("kotlin", 10)).isEmpty();
+        assertThat(index.suggest("", 10)).isEmpty();
+    }
+
+    @Test
+    void breaksTiesAlphabeticallyAndMergesDuplicates() {
+        SuggestionIndex<String> index = new SuggestionIndex.Builder<String>()
+            .add("b", "b", 1)
+            .add("a", "a", 1)
+            .add("ab", "b", 5)
+            .build();
+
+        // "b" 는 두 키로 색인되었지만 한 번만 반환된다
+        assertThat(index.suggest("a", 10)).containsExactly("b", "a");
+        assertThat(index.suggest("b", 10)).containsExactly("b");
+    }
+
+    @Test
+    void matchesHangulSyllableBeingTyped() {
+        SuggestionIndex<String> index = new SuggestionIndex.Builder<String>()
+            .add("자바의 정석", "자바의 정석", 1)
+            .add("자료구조", "자료구조", 2)
+            .build();
+
+        // "자ㅂ" 은 "자바의 정석" 과만 일치
+        assertThat(index.suggest("자ㅂ", 10)).containsExactly("자바의 정석");
+        assertThat(index.suggest("자", 10)).containsExactly("자료구조", "자바의 정석");
+    }
+}
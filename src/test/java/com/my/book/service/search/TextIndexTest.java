@@ -0,0 +1,59 @@
+package com.my.book.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+class TextIndexTest {
+
+    private TextIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        // 제목, 저자
+        index = new TextIndex(new Tokenizer(), 3f, 1f);
+        index.put(1L, "Effective Java", "Joshua Bloch");
+        index.put(2L, "Java Concurrency in Practice", "Brian Goetz");
+        index.put(3L, "Clean Code", "Robert Martin");
+        index.put(4L, "Java Puzzlers", "Joshua Bloch, Neal Gafter");
+    }
+
+    @Test
+    void returnsDocumentsContainingEveryTerm() {
+        assertThat(index.search("java bloch", PageRequest.of(0, 10))).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(index.search("java kotlin", PageRequest.of(0, 10))).isEmpty();
+        assertThat(index.search("  ", PageRequest.of(0, 10))).isEmpty();
+    }
+
+    @Test
+    void ranksWeightedFieldsHigher() {
+        index.put(5L, "Bloch", "Someone Else");
+
+        assertThat(index.search("bloch", PageRequest.of(0, 10)).getContent()).first().isEqualTo(5L);
+    }
+
+    @Test
+    void pagesRankedResultsWithTotal() {
+        Page<Long> first = index.search("JAVA", PageRequest.of(0, 2));
+        Page<Long> second = index.search("JAVA", PageRequest.of(1, 2));
+
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(first.getContent()).hasSize(2);
+        assertThat(second.getContent()).hasSize(1);
+        assertThat(first.getContent()).doesNotContainAnyElementsOf(second.getContent());
+    }
+
+    @Test
+    void replacesAndRemovesDocuments() {
+        index.put(3L, "Clean Architecture", "Robert Martin");
+        index.remove(1L);
+
+        assertThat(index.search("code", PageRequest.of(0, 10))).isEmpty();
+        assertThat(index.search("architecture", PageRequest.of(0, 10))).containsExactly(3L);
+        assertThat(index.search("effective", PageRequest.of(0, 10))).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+}
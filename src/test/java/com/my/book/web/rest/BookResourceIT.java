@@ -5,22 +5,34 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.jayway.jsonpath.JsonPath;
 import com.my.book.IntegrationTest;
 import com.my.book.domain.Book;
+import com.my.book.domain.enumeration.BookStatus;
+import com.my.book.domain.enumeration.Classification;
+import com.my.book.domain.enumeration.Location;
 import com.my.book.repository.BookRepository;
+import com.my.book.service.cache.BookQueryResultCache;
 import com.my.book.web.rest.dto.BookDTO;
 import com.my.book.web.rest.mapper.BookMapper;
+import com.my.book.web.rest.util.KeysetPaginationUtil;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -40,6 +52,15 @@ class BookResourceIT {
     private static final String DEFAULT_DESCRIPTION = "AAAAAAAAAA";
     private static final String UPDATED_DESCRIPTION = "BBBBBBBBBB";
 
+    private static final Classification DEFAULT_CLASSIFICATION = Classification.Arts;
+    private static final Classification UPDATED_CLASSIFICATION = Classification.Photography;
+
+    private static final BookStatus DEFAULT_BOOK_STATUS = BookStatus.AVAILABLE;
+    private static final BookStatus UPDATED_BOOK_STATUS = BookStatus.UNAVAILABLE;
+
+    private static final Location DEFAULT_LOCATION = Location.JEONGJA;
+    private static final Location UPDATED_LOCATION = Location.PANGYO;
+
     private static final String ENTITY_API_URL = "/api/books";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
 
@@ -58,6 +79,9 @@ class BookResourceIT {
     @Autowired
     private MockMvc restBookMockMvc;
 
+    @Autowired
+    private BookQueryResultCache bookQueryResultCache;
+
     private Book book;
 
     /**
@@ -67,7 +91,13 @@ class BookResourceIT {
      * if they test an entity which requires the current entity.
      */
     public static Book createEntity(EntityManager em) {
-        Book book = new Book().title(DEFAULT_TITLE).author(DEFAULT_AUTHOR).description(DEFAULT_DESCRIPTION);
+        Book book = new Book()
+            .title(DEFAULT_TITLE)
+            .author(DEFAULT_AUTHOR)
+            .description(DEFAULT_DESCRIPTION)
+            .classification(DEFAULT_CLASSIFICATION)
+            .bookStatus(DEFAULT_BOOK_STATUS)
+            .location(DEFAULT_LOCATION);
         return book;
     }
 
@@ -78,12 +108,20 @@ class BookResourceIT {
      * if they test an entity which requires the current entity.
      */
     public static Book createUpdatedEntity(EntityManager em) {
-        Book book = new Book().title(UPDATED_TITLE).author(UPDATED_AUTHOR).description(UPDATED_DESCRIPTION);
+        Book book = new Book()
+            .title(UPDATED_TITLE)
+            .author(UPDATED_AUTHOR)
+            .description(UPDATED_DESCRIPTION)
+            .classification(UPDATED_CLASSIFICATION)
+            .bookStatus(UPDATED_BOOK_STATUS)
+            .location(UPDATED_LOCATION);
         return book;
     }
 
     @BeforeEach
     public void initTest() {
+        // 테스트 데이터는 저장소로 직접 넣고 롤백되어 카탈로그 버전이 바뀌지 않으므로 이전 테스트의 결과를 지운다
+        bookQueryResultCache.clear();
         book = createEntity(em);
     }
 
@@ -447,6 +485,162 @@ class BookResourceIT {
         defaultBookShouldBeFound("description.doesNotContain=" + UPDATED_DESCRIPTION);
     }
 
+    @Test
+    @Transactional
+    void getAllBooksByClassificationIsEqualToSomething() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where classification equals to DEFAULT_CLASSIFICATION
+        defaultBookShouldBeFound("classification.equals=" + DEFAULT_CLASSIFICATION);
+
+        // Get all the bookList where classification equals to UPDATED_CLASSIFICATION
+        defaultBookShouldNotBeFound("classification.equals=" + UPDATED_CLASSIFICATION);
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByClassificationIsNotEqualToSomething() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where classification not equals to DEFAULT_CLASSIFICATION
+        defaultBookShouldNotBeFound("classification.notEquals=" + DEFAULT_CLASSIFICATION);
+
+        // Get all the bookList where classification not equals to UPDATED_CLASSIFICATION
+        defaultBookShouldBeFound("classification.notEquals=" + UPDATED_CLASSIFICATION);
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByClassificationIsInShouldWork() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where classification in DEFAULT_CLASSIFICATION or UPDATED_CLASSIFICATION
+        defaultBookShouldBeFound("classification.in=" + DEFAULT_CLASSIFICATION + "," + UPDATED_CLASSIFICATION);
+
+        // Get all the bookList where classification equals to UPDATED_CLASSIFICATION
+        defaultBookShouldNotBeFound("classification.in=" + UPDATED_CLASSIFICATION);
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByClassificationIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where classification is not null
+        defaultBookShouldBeFound("classification.specified=true");
+
+        // Get all the bookList where classification is null
+        defaultBookShouldNotBeFound("classification.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByBookStatusIsEqualToSomething() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where bookStatus equals to DEFAULT_BOOK_STATUS
+        defaultBookShouldBeFound("bookStatus.equals=" + DEFAULT_BOOK_STATUS);
+
+        // Get all the bookList where bookStatus equals to UPDATED_BOOK_STATUS
+        defaultBookShouldNotBeFound("bookStatus.equals=" + UPDATED_BOOK_STATUS);
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByBookStatusIsNotEqualToSomething() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where bookStatus not equals to DEFAULT_BOOK_STATUS
+        defaultBookShouldNotBeFound("bookStatus.notEquals=" + DEFAULT_BOOK_STATUS);
+
+        // Get all the bookList where bookStatus not equals to UPDATED_BOOK_STATUS
+        defaultBookShouldBeFound("bookStatus.notEquals=" + UPDATED_BOOK_STATUS);
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByBookStatusIsInShouldWork() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where bookStatus in DEFAULT_BOOK_STATUS or UPDATED_BOOK_STATUS
+        defaultBookShouldBeFound("bookStatus.in=" + DEFAULT_BOOK_STATUS + "," + UPDATED_BOOK_STATUS);
+
+        // Get all the bookList where bookStatus equals to UPDATED_BOOK_STATUS
+        defaultBookShouldNotBeFound("bookStatus.in=" + UPDATED_BOOK_STATUS);
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByBookStatusIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where bookStatus is not null
+        defaultBookShouldBeFound("bookStatus.specified=true");
+
+        // Get all the bookList where bookStatus is null
+        defaultBookShouldNotBeFound("bookStatus.specified=false");
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByLocationIsEqualToSomething() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where location equals to DEFAULT_LOCATION
+        defaultBookShouldBeFound("location.equals=" + DEFAULT_LOCATION);
+
+        // Get all the bookList where location equals to UPDATED_LOCATION
+        defaultBookShouldNotBeFound("location.equals=" + UPDATED_LOCATION);
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByLocationIsNotEqualToSomething() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where location not equals to DEFAULT_LOCATION
+        defaultBookShouldNotBeFound("location.notEquals=" + DEFAULT_LOCATION);
+
+        // Get all the bookList where location not equals to UPDATED_LOCATION
+        defaultBookShouldBeFound("location.notEquals=" + UPDATED_LOCATION);
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByLocationIsInShouldWork() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where location in DEFAULT_LOCATION or UPDATED_LOCATION
+        defaultBookShouldBeFound("location.in=" + DEFAULT_LOCATION + "," + UPDATED_LOCATION);
+
+        // Get all the bookList where location equals to UPDATED_LOCATION
+        defaultBookShouldNotBeFound("location.in=" + UPDATED_LOCATION);
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByLocationIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        bookRepository.saveAndFlush(book);
+
+        // Get all the bookList where location is not null
+        defaultBookShouldBeFound("location.specified=true");
+
+        // Get all the bookList where location is null
+        defaultBookShouldNotBeFound("location.specified=false");
+    }
+
     /**
      * Executes the search, and checks that the default entity is returned.
      */
@@ -487,6 +681,74 @@ class BookResourceIT {
             .andExpect(content().string("0"));
     }
 
+    @Test
+    @Transactional
+    void getAllBooksByKeysetOnTitle() throws Exception {
+        // 같은 제목이 slice 경계에 걸치도록 id 순서와 제목 순서를 다르게 넣는다
+        String author = "KEYSET-" + count.incrementAndGet();
+        Long b1 = saveBook("Keyset B", author);
+        Long a = saveBook("Keyset A", author);
+        Long c = saveBook("Keyset C", author);
+        Long b2 = saveBook("Keyset B", author);
+        Long b3 = saveBook("Keyset B", author);
+
+        assertThat(walkBooksByKeyset("author.equals=" + author + "&sort=title,asc", 2))
+            .containsExactly(List.of(a, b1), List.of(b2, b3), List.of(c));
+        assertThat(walkBooksByKeyset("author.equals=" + author + "&sort=title,desc", 2))
+            .containsExactly(List.of(c, b3), List.of(b2, b1), List.of(a));
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByKeysetOnId() throws Exception {
+        String author = "KEYSET-" + count.incrementAndGet();
+        Long first = saveBook("Keyset", author);
+        Long second = saveBook("Keyset", author);
+        Long third = saveBook("Keyset", author);
+
+        assertThat(walkBooksByKeyset("author.equals=" + author + "&sort=id,desc", 2))
+            .containsExactly(List.of(third, second), List.of(first));
+        // 마지막 slice 가 꽉 차도 다음 cursor 를 주지 않는다
+        assertThat(walkBooksByKeyset("author.equals=" + author + "&sort=id,asc", 3)).containsExactly(List.of(first, second, third));
+    }
+
+    @Test
+    @Transactional
+    void getAllBooksByKeysetWithInvalidCursor() throws Exception {
+        restBookMockMvc.perform(get(ENTITY_API_URL + "/keyset?cursor=!!!")).andExpect(status().isBadRequest());
+        // 정렬이 허용되지 않는 속성으로 바꾼 cursor
+        String tampered = Base64.getUrlEncoder().withoutPadding().encodeToString("ASC|description|1|x".getBytes(StandardCharsets.UTF_8));
+        restBookMockMvc.perform(get(ENTITY_API_URL + "/keyset?cursor=" + tampered)).andExpect(status().isBadRequest());
+        restBookMockMvc.perform(get(ENTITY_API_URL + "/keyset?sort=description,asc")).andExpect(status().isBadRequest());
+    }
+
+    private Long saveBook(String title, String author) {
+        return bookRepository.saveAndFlush(createEntity(em).title(title).author(author)).getId();
+    }
+
+    /**
+     * Follows the {@code X-Next-Cursor} headers from the first slice, and returns the ids of each slice.
+     */
+    private List<List<Long>> walkBooksByKeyset(String filter, int size) throws Exception {
+        List<List<Long>> slices = new ArrayList<>();
+        String cursor = null;
+        do {
+            String query = filter + "&size=" + size + (cursor == null ? "" : "&cursor=" + cursor);
+            MvcResult result = restBookMockMvc.perform(get(ENTITY_API_URL + "/keyset?" + query)).andExpect(status().isOk()).andReturn();
+            List<Number> ids = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+            slices.add(ids.stream().map(Number::longValue).collect(Collectors.toList()));
+            cursor = result.getResponse().getHeader(KeysetPaginationUtil.HEADER_X_NEXT_CURSOR);
+            String link = result.getResponse().getHeader(HttpHeaders.LINK);
+            if (cursor == null) {
+                assertThat(link).isNull();
+            } else {
+                assertThat(link).contains("cursor=" + cursor).contains("size=" + size).endsWith("; rel=\"next\"");
+            }
+            assertThat(slices).hasSizeLessThan(10);
+        } while (cursor != null);
+        return slices;
+    }
+
     @Test
     @Transactional
     void getNonExistingBook() throws Exception {
@@ -526,6 +788,39 @@ class BookResourceIT {
         assertThat(testBook.getDescription()).isEqualTo(UPDATED_DESCRIPTION);
     }
 
+    @Test
+    void updateBookInvalidatesCachedPage() throws Exception {
+        // 커밋 후에 카탈로그 버전이 바뀌므로 트랜잭션 없이 실행하고 직접 정리한다
+        bookRepository.saveAndFlush(book);
+        String filter = "?sort=id,desc&id.equals=" + book.getId() + "&title.equals=" + DEFAULT_TITLE;
+        try {
+            // 페이지의 도서 id 가 캐시된다
+            restBookMockMvc
+                .perform(get(ENTITY_API_URL + filter))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.[*].id").value(hasItem(book.getId().intValue())));
+
+            BookDTO bookDTO = bookMapper.toDto(book);
+            bookDTO.setTitle(UPDATED_TITLE);
+            restBookMockMvc
+                .perform(
+                    put(ENTITY_API_URL_ID, bookDTO.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(bookDTO))
+                )
+                .andExpect(status().isOk());
+
+            // 수정 전에 캐시된 id 목록으로 응답하면 더 이상 조건에 맞지 않는 도서가 나온다
+            restBookMockMvc
+                .perform(get(ENTITY_API_URL + filter))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray())
+                .andExpect(jsonPath("$").isEmpty());
+        } finally {
+            bookRepository.deleteById(book.getId());
+        }
+    }
+
     @Test
     @Transactional
     void putNonExistingBook() throws Exception {
@@ -0,0 +1,207 @@
+package com.my.book.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.jayway.jsonpath.JsonPath;
+import com.my.book.IntegrationTest;
+import com.my.book.domain.InStockBook;
+import com.my.book.repository.InStockBookRepository;
+import com.my.book.service.InStockBookService;
+import com.my.book.web.rest.util.KeysetPaginationUtil;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for the {@link InStockBookResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class InStockBookResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/in-stock-books";
+
+    private static Random random = new Random();
+    private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
+
+    @Autowired
+    private InStockBookRepository inStockBookRepository;
+
+    @Autowired
+    private InStockBookService inStockBookService;
+
+    @Autowired
+    private MockMvc restInStockBookMockMvc;
+
+    // 가져오기는 비동기 요청 스레드에서 따로 커밋되므로 테스트가 끝나면 지운다
+    private final List<String> importAuthors = new ArrayList<>();
+
+    @AfterEach
+    public void deleteImported() {
+        List<Long> ids = inStockBookRepository
+            .findAll()
+            .stream()
+            .filter(inStockBook -> importAuthors.contains(inStockBook.getAuthor()))
+            .map(InStockBook::getId)
+            .collect(Collectors.toList());
+        if (!ids.isEmpty()) {
+            inStockBookService.deleteAll(ids);
+        }
+    }
+
+    @Test
+    @Transactional
+    void getAllInStockBooksByKeyset() throws Exception {
+        String author = "KEYSET-" + count.incrementAndGet();
+        Long first = saveInStockBook("Keyset", author);
+        Long second = saveInStockBook("Keyset", author);
+        Long third = saveInStockBook("Keyset", author);
+
+        assertThat(walkInStockBooksByKeyset("author.equals=" + author + "&sort=id,asc", 2))
+            .containsExactly(List.of(first, second), List.of(third));
+        assertThat(walkInStockBooksByKeyset("author.equals=" + author + "&sort=id,desc", 3))
+            .containsExactly(List.of(third, second, first));
+    }
+
+    @Test
+    @Transactional
+    void getAllInStockBooksByKeysetWithInvalidCursor() throws Exception {
+        restInStockBookMockMvc.perform(get(ENTITY_API_URL + "/keyset?cursor=!!!")).andExpect(status().isBadRequest());
+        // 도서 목록에서는 허용되지만 입고 도서는 id 로만 정렬한다
+        String titleCursor = Base64.getUrlEncoder().withoutPadding().encodeToString("ASC|title|1|x".getBytes(StandardCharsets.UTF_8));
+        restInStockBookMockMvc.perform(get(ENTITY_API_URL + "/keyset?cursor=" + titleCursor)).andExpect(status().isBadRequest());
+        restInStockBookMockMvc.perform(get(ENTITY_API_URL + "/keyset?sort=title,asc")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void importInStockBooksFromCsv() throws Exception {
+        String author = importAuthor();
+        String csv = "title,author\n가져오기 1," + author + "\n," + author + "\n가져오기 2," + author + "\n";
+
+        List<String> lines = importInStockBooks("text/csv", csv);
+
+        assertThat(lines)
+            .containsExactly(
+                "{\"line\":3,\"error\":\"title is required\"}",
+                "{\"processed\":3,\"imported\":2,\"failed\":1}",
+                "{\"done\":true}"
+            );
+        assertThat(importedTitles(author)).containsExactlyInAnyOrder("가져오기 1", "가져오기 2");
+    }
+
+    @Test
+    void importInStockBooksFromNdjson() throws Exception {
+        String author = importAuthor();
+        String ndjson =
+            "{\"title\":\"가져오기 1\",\"author\":\"" + author + "\"}\n{\"id\":1,\"title\":\"가져오기 2\",\"author\":\"" + author + "\"}\n";
+
+        List<String> lines = importInStockBooks("application/x-ndjson", ndjson);
+
+        assertThat(lines)
+            .containsExactly(
+                "{\"line\":2,\"error\":\"A new inStockBook cannot already have an ID\"}",
+                "{\"processed\":2,\"imported\":1,\"failed\":1}",
+                "{\"done\":true}"
+            );
+        assertThat(importedTitles(author)).containsExactly("가져오기 1");
+    }
+
+    @Test
+    void importInStockBooksUpToAnUnclosedQuote() throws Exception {
+        String author = importAuthor();
+        String csv = "title,author\n가져오기 1," + author + "\n\"가져오기 2," + author + "\n";
+
+        List<String> lines = importInStockBooks("text/csv", csv);
+
+        // 닫히지 않은 따옴표 앞의 행은 저장되고, 마지막 줄이 실패를 알린다
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).isEqualTo("{\"processed\":1,\"imported\":1,\"failed\":0}");
+        assertThat(lines.get(1)).contains("line 3").endsWith("\"done\":false}");
+        assertThat(importedTitles(author)).containsExactly("가져오기 1");
+    }
+
+    @Test
+    void importInStockBooksWithUnsupportedContentType() throws Exception {
+        restInStockBookMockMvc
+            .perform(post(ENTITY_API_URL + "/import").contentType(MediaType.APPLICATION_JSON).content("[]"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private String importAuthor() {
+        String author = "IMPORT-" + count.incrementAndGet();
+        importAuthors.add(author);
+        return author;
+    }
+
+    /**
+     * Posts {@code body} to the import endpoint, and returns the lines of the progress stream.
+     */
+    private List<String> importInStockBooks(String contentType, String body) throws Exception {
+        MvcResult started = restInStockBookMockMvc
+            .perform(post(ENTITY_API_URL + "/import").contentType(contentType).characterEncoding("UTF-8").content(body))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        MvcResult result = restInStockBookMockMvc
+            .perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andReturn();
+        return List.of(result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n"));
+    }
+
+    private List<String> importedTitles(String author) {
+        return inStockBookRepository
+            .findAll()
+            .stream()
+            .filter(inStockBook -> author.equals(inStockBook.getAuthor()))
+            .map(InStockBook::getTitle)
+            .collect(Collectors.toList());
+    }
+
+    private Long saveInStockBook(String title, String author) {
+        return inStockBookRepository.saveAndFlush(new InStockBook().title(title).author(author)).getId();
+    }
+
+    /**
+     * Follows the {@code X-Next-Cursor} headers from the first slice, and returns the ids of each slice.
+     */
+    private List<List<Long>> walkInStockBooksByKeyset(String filter, int size) throws Exception {
+        List<List<Long>> slices = new ArrayList<>();
+        String cursor = null;
+        do {
+            String query = filter + "&size=" + size + (cursor == null ? "" : "&cursor=" + cursor);
+            MvcResult result = restInStockBookMockMvc
+                .perform(get(ENTITY_API_URL + "/keyset?" + query))
+                .andExpect(status().isOk())
+                .andReturn();
+            List<Number> ids = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+            slices.add(ids.stream().map(Number::longValue).collect(Collectors.toList()));
+            cursor = result.getResponse().getHeader(KeysetPaginationUtil.HEADER_X_NEXT_CURSOR);
+            String link = result.getResponse().getHeader(HttpHeaders.LINK);
+            if (cursor == null) {
+                assertThat(link).isNull();
+            } else {
+                assertThat(link).contains("cursor=" + cursor).contains("size=" + size).endsWith("; rel=\"next\"");
+            }
+            assertThat(slices).hasSizeLessThan(10);
+        } while (cursor != null);
+        return slices;
+    }
+}